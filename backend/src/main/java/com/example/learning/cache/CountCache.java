@@ -0,0 +1,119 @@
+package com.example.learning.cache;
+
+import com.example.learning.event.PostChangedEvent;
+import com.example.learning.event.UserAccountChangedEvent;
+import com.example.learning.event.UserRegisteredEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of COUNT(*) results for paged listings, keyed by query and filter.
+ * Only a count computed for the request is exact; a cached one is served as approximate, since
+ * writes on other instances do not reach it. An entry past its TTL but within the stale window is
+ * also recounted by a single background refresh. Committed post and user changes evict the
+ * matching keys here, so local writes show up in the next total.
+ */
+@Component
+@Slf4j
+public class CountCache {
+
+    private final Cache<String, CachedCount> counts;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "count-cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long ttlNanos;
+    private final Counter staleServed;
+
+    public CountCache(@Value("${page-counts.cache.ttl:PT30S}") Duration ttl,
+                      @Value("${page-counts.cache.max-stale:PT5M}") Duration maxStale,
+                      @Value("${page-counts.cache.max-size:10000}") long maxSize,
+                      MeterRegistry meterRegistry) {
+        this.ttlNanos = ttl.toNanos();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStale)
+                .recordStats()
+                .build();
+        this.staleServed = Counter.builder("page-counts.stale-served")
+                .description("Totals served from a stale entry and flagged approximate")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "page-counts");
+    }
+
+    public CountResult count(String key, LongSupplier counter) {
+        CachedCount cached = counts.getIfPresent(key);
+        long now = System.nanoTime();
+
+        if (cached == null) {
+            long total = counter.getAsLong();
+            counts.put(key, new CachedCount(total, now));
+            return new CountResult(total, false);
+        }
+
+        if (now - cached.computedAt() < ttlNanos) {
+            return new CountResult(cached.total(), true);
+        }
+
+        staleServed.increment();
+        if (refreshing.add(key)) {
+            refreshExecutor.execute(() -> {
+                try {
+                    counts.put(key, new CachedCount(counter.getAsLong(), System.nanoTime()));
+                } catch (RuntimeException ex) {
+                    log.warn("Could not refresh count for {}: {}", key, ex.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        }
+        return new CountResult(cached.total(), true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event) {
+        evictPrefix("posts.");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        evictPrefix("users.");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        evictPrefix("users.");
+    }
+
+    private void evictPrefix(String prefix) {
+        counts.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    public record CountResult(long total, boolean approximate) {
+    }
+
+    private record CachedCount(long total, long computedAt) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.learning.cache;
+
+import com.example.learning.event.PostChangedEvent;
+import com.example.learning.event.UserAccountChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encoded response bodies for the first pages of the public feed, held in direct buffers
+ * outside the GC heap. Bounded by total bytes and dropped whenever a published post changes.
+ */
+@Component
+@Slf4j
+public class FeedResponseCache {
+
+    private final Cache<String, CachedResponse> responses;
+    private final AtomicLong generation = new AtomicLong();
+
+    public FeedResponseCache(@Value("${feed-cache.ttl:PT30S}") Duration ttl,
+                             @Value("${feed-cache.max-bytes:16777216}") long maxBytes,
+                             MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.body().capacity())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "feed-responses");
+        Gauge.builder("feed-responses.bytes", responses,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Direct memory held by cached feed responses")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return a read-only view positioned at the start of the body, or null on a miss
+     */
+    public CachedResponse get(String key) {
+        CachedResponse cached = responses.getIfPresent(key);
+        return cached != null ? cached.view() : null;
+    }
+
+    /**
+     * Token to pass to {@link #put} so a response rendered before an invalidation is not stored after it.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String key, long generationAtLoad, byte[] body, String contentType) {
+        if (generation.get() != generationAtLoad) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(body.length);
+        buffer.put(body).flip();
+        responses.put(key, new CachedResponse(buffer.asReadOnlyBuffer(), contentType));
+        if (generation.get() != generationAtLoad) {
+            responses.invalidate(key);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.published()) {
+            invalidateAll();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        invalidateAll();
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        responses.invalidateAll();
+        log.debug("Invalidated cached feed responses");
+    }
+
+    public record CachedResponse(ByteBuffer body, String contentType) {
+
+        CachedResponse view() {
+            return new CachedResponse(body.duplicate(), contentType);
+        }
+    }
+}
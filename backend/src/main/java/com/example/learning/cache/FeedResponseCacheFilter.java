@@ -0,0 +1,136 @@
+package com.example.learning.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.ServletOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Serves anonymous, cursorless requests for the first feed pages from {@link FeedResponseCache},
+ * skipping the database, mapping and JSON encoding. Misses run the normal handler and keep its bytes.
+ */
+@Slf4j
+public class FeedResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String FEED_PATH = "/api/v1/posts";
+    private static final Set<String> CACHEABLE_PARAMS = Set.of("page", "size", "sort", "direction", "includeTotal");
+
+    /**
+     * Per-thread staging buffer for copying a direct body to the servlet stream, so a hit
+     * allocates nothing on the heap (a stream-backed channel would allocate per response).
+     */
+    private static final ThreadLocal<byte[]> COPY_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    @Autowired
+    private FeedResponseCache feedResponseCache;
+
+    @Value("${feed-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${feed-cache.max-pages:3}")
+    private int maxPages;
+
+    @Value("${feed-cache.max-page-size:50}")
+    private int maxPageSize;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !HttpMethod.GET.matches(request.getMethod())
+                || !FEED_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = resolveKey(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        FeedResponseCache.CachedResponse cached = feedResponseCache.get(key);
+        if (cached != null) {
+            writeCached(response, cached);
+            return;
+        }
+
+        long generation = feedResponseCache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpStatus.OK.value()) {
+            feedResponseCache.put(key, generation, wrapper.getContentAsByteArray(), wrapper.getContentType());
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Canonical key for the request, or null when the request must not be served from the cache.
+     */
+    private String resolveKey(HttpServletRequest request) {
+        if (SecurityContextHolder.getContext().getAuthentication() != null || !acceptsJson(request)) {
+            return null;
+        }
+        if (!CACHEABLE_PARAMS.containsAll(request.getParameterMap().keySet())) {
+            return null;
+        }
+        try {
+            int page = Integer.parseInt(param(request, "page", "0"));
+            int size = Integer.parseInt(param(request, "size", "10"));
+            if (page < 0 || page >= maxPages || size < 1 || size > maxPageSize) {
+                return null;
+            }
+            return page + ":" + size + ":" + param(request, "sort", "createdAt") + ":"
+                    + param(request, "direction", "DESC").toUpperCase(Locale.ROOT) + ":"
+                    + Boolean.parseBoolean(param(request, "includeTotal", "true"));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private boolean acceptsJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return true;
+        }
+        return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(type -> type.isWildcardType() || type.includes(MediaType.APPLICATION_JSON));
+    }
+
+    private String param(HttpServletRequest request, String name, String defaultValue) {
+        String value = request.getParameter(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private void writeCached(HttpServletResponse response, FeedResponseCache.CachedResponse cached) throws IOException {
+        ByteBuffer body = cached.body();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(cached.contentType());
+        response.setContentLength(body.remaining());
+        // The handler interceptor that sets this on /api/** never runs for a cache hit.
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        ServletOutputStream out = response.getOutputStream();
+        byte[] chunk = COPY_BUFFER.get();
+        while (body.hasRemaining()) {
+            int length = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+        response.flushBuffer();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.learning.cache;
+
+import com.example.learning.entity.LikeTarget;
+import com.example.learning.event.LikeChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Who liked what, held per post or comment as a compressed bitmap of user ids. Bitmaps are
+ * loaded from the like tables on first use, kept in step with committed likes and evicted when
+ * cold, so membership and counts for a page of hot items need no query at all.
+ */
+@Component
+public class LikeIndex {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<LikeTarget, Cache<Long, LikeSet>> likes = new EnumMap<>(LikeTarget.class);
+
+    /**
+     * Bumped by every applied change; a bulk load that overlaps one does not keep what it read.
+     */
+    private final AtomicLong changes = new AtomicLong();
+
+    public LikeIndex(NamedParameterJdbcTemplate jdbcTemplate,
+                     MeterRegistry meterRegistry,
+                     @Value("${likes.cache.max-bytes:67108864}") long maxBytes,
+                     @Value("${likes.cache.expire-after-access:PT30M}") Duration expireAfterAccess) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (LikeTarget target : LikeTarget.values()) {
+            Cache<Long, LikeSet> cache = Caffeine.newBuilder()
+                    .maximumWeight(maxBytes / LikeTarget.values().length)
+                    .weigher((Long id, LikeSet set) -> set.sizeInBytes())
+                    .expireAfterAccess(expireAfterAccess)
+                    .recordStats()
+                    .build();
+            likes.put(target, cache);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "likes." + target.name().toLowerCase());
+        }
+    }
+
+    /**
+     * Like sets already in memory; never queries.
+     */
+    public Map<Long, LikeSet> cached(LikeTarget target, Collection<Long> ids) {
+        return likes.get(target).getAllPresent(ids);
+    }
+
+    /**
+     * Like sets for every id, loading the cold ones with a single query.
+     */
+    public Map<Long, LikeSet> load(LikeTarget target, Collection<Long> ids) {
+        Cache<Long, LikeSet> cache = likes.get(target);
+        Map<Long, LikeSet> sets = new HashMap<>(cache.getAllPresent(ids));
+        List<Long> missing = ids.stream()
+                .filter(id -> !sets.containsKey(id))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return sets;
+        }
+
+        long before = changes.get();
+        Map<Long, LikeSet> loaded = query(target, missing);
+        List<Long> inserted = new ArrayList<>(loaded.size());
+        loaded.forEach((id, set) -> {
+            LikeSet existing = cache.asMap().putIfAbsent(id, set);
+            sets.put(id, existing != null ? existing : set);
+            if (existing == null) {
+                inserted.add(id);
+            }
+        });
+        if (changes.get() != before) {
+            // A like committed while we were reading may be missing from what we just cached.
+            cache.invalidateAll(inserted);
+        }
+        return sets;
+    }
+
+    private Map<Long, LikeSet> query(LikeTarget target, List<Long> ids) {
+        Map<Long, Roaring64Bitmap> bitmaps = new HashMap<>();
+        ids.forEach(id -> bitmaps.put(id, new Roaring64Bitmap()));
+        jdbcTemplate.query("SELECT " + target.column() + ", user_id FROM " + target.table()
+                        + " WHERE " + target.column() + " IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                row -> {
+                    bitmaps.get(row.getLong(1)).addLong(row.getLong(2));
+                });
+
+        Map<Long, LikeSet> sets = new HashMap<>();
+        bitmaps.forEach((id, bitmap) -> {
+            bitmap.runOptimize();
+            sets.put(id, new LikeSet(bitmap));
+        });
+        return sets;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLikeChanged(LikeChangedEvent event) {
+        changes.incrementAndGet();
+        // Going through compute lets Caffeine re-weigh the bitmap after it changes.
+        likes.get(event.target()).asMap().computeIfPresent(event.targetId(),
+                (id, set) -> set.apply(event.userId(), event.liked()));
+    }
+
+    /**
+     * One item's likers. Reads share a lock, so checking membership on a hot post does not
+     * serialize its readers.
+     */
+    public static final class LikeSet {
+
+        private final Roaring64Bitmap userIds;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        LikeSet(Roaring64Bitmap userIds) {
+            this.userIds = userIds;
+        }
+
+        public boolean contains(Long userId) {
+            lock.readLock().lock();
+            try {
+                return userIds.contains(userId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        public long count() {
+            lock.readLock().lock();
+            try {
+                return userIds.getLongCardinality();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        LikeSet apply(Long userId, boolean liked) {
+            lock.writeLock().lock();
+            try {
+                if (liked) {
+                    userIds.addLong(userId);
+                } else {
+                    userIds.removeLong(userId);
+                }
+                return this;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int sizeInBytes() {
+            lock.readLock().lock();
+            try {
+                return (int) Math.min(Integer.MAX_VALUE, userIds.getLongSizeInBytes());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
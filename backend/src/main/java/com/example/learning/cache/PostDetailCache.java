@@ -0,0 +1,152 @@
+package com.example.learning.cache;
+
+import com.example.learning.dto.response.PostResponse;
+import com.example.learning.event.CommentChangedEvent;
+import com.example.learning.event.PostChangedEvent;
+import com.example.learning.event.UserAccountChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of post details. Concurrent misses for the same post share one load,
+ * so an expired hot entry costs the database a single query instead of a stampede.
+ */
+@Component
+@Slf4j
+public class PostDetailCache {
+
+    private final Cache<Long, PostResponse> posts;
+    private final Map<Long, CompletableFuture<PostResponse>> inflight = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter coalescedWaiters;
+
+    public PostDetailCache(@Value("${post-cache.ttl:PT60S}") Duration ttl,
+                           @Value("${post-cache.max-size:10000}") long maxSize,
+                           MeterRegistry meterRegistry) {
+        this.posts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.coalescedWaiters = Counter.builder("post-details.coalesced-waiters")
+                .description("Cache misses that waited on another caller's load instead of querying")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, posts, "post-details");
+        Gauge.builder("post-details.inflight-loads", inflight, Map::size)
+                .register(meterRegistry);
+    }
+
+    public PostResponse get(Long postId, Function<Long, PostResponse> loader) {
+        PostResponse cached = posts.getIfPresent(postId);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<PostResponse> load = new CompletableFuture<>();
+        CompletableFuture<PostResponse> existing = inflight.putIfAbsent(postId, load);
+        if (existing != null) {
+            coalescedWaiters.increment();
+            return await(existing);
+        }
+
+        long invalidationsAtLoad = invalidations.get();
+        try {
+            PostResponse post = loader.apply(postId);
+            // An invalidation can land after the load read the row but before the put;
+            // like getAll, store only if none happened and re-check after storing.
+            if (inflight.remove(postId, load) && invalidations.get() == invalidationsAtLoad) {
+                posts.put(postId, post);
+                if (invalidations.get() != invalidationsAtLoad) {
+                    posts.invalidate(postId);
+                }
+            }
+            load.complete(post);
+            return post;
+        } catch (RuntimeException | Error ex) {
+            inflight.remove(postId, load);
+            load.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the cached posts among {@code postIds} and loads all the others with one loader call.
+     * Ids that do not resolve to a post are absent from the result.
+     */
+    public Map<Long, PostResponse> getAll(Collection<Long> postIds, Function<List<Long>, List<PostResponse>> loader) {
+        Map<Long, PostResponse> found = new HashMap<>(posts.getAllPresent(postIds));
+        List<Long> missing = postIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        long invalidationsAtLoad = invalidations.get();
+        List<PostResponse> loaded = loader.apply(missing);
+        loaded.forEach(post -> found.put(post.getId(), post));
+        if (invalidations.get() == invalidationsAtLoad) {
+            loaded.forEach(post -> posts.put(post.getId(), post));
+            if (invalidations.get() != invalidationsAtLoad) {
+                loaded.forEach(post -> posts.invalidate(post.getId()));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Drops the entry and detaches any load in progress, so that load's result is returned
+     * to its waiters but never stored.
+     */
+    public void invalidate(Long postId) {
+        invalidations.incrementAndGet();
+        inflight.remove(postId);
+        posts.invalidate(postId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidate(event.postId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommentChanged(CommentChangedEvent event) {
+        invalidate(event.postId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        invalidations.incrementAndGet();
+        posts.asMap().values().removeIf(post -> event.userId().equals(post.getAuthor().getId()));
+    }
+
+    private PostResponse await(CompletableFuture<PostResponse> load) {
+        try {
+            return load.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.learning.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+/**
+ * Jackson converter for MessagePack, registered under both the common and the legacy media type.
+ */
+public class MessagePackHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final MediaType APPLICATION_MSGPACK = new MediaType("application", "msgpack");
+    public static final MediaType APPLICATION_X_MSGPACK = new MediaType("application", "x-msgpack");
+
+    public MessagePackHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper, APPLICATION_MSGPACK, APPLICATION_X_MSGPACK);
+    }
+}
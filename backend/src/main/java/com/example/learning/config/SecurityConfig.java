@@ -1,6 +1,10 @@
 package com.example.learning.config;
 
+import com.example.learning.cache.FeedResponseCacheFilter;
+import com.example.learning.security.BCryptCostCalibrator;
 import com.example.learning.security.JwtAuthenticationFilter;
+import com.example.learning.security.RateLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,6 +18,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -26,8 +31,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${password.hashing.strength:10}") int strength,
+            @Value("${password.hashing.calibrate:false}") boolean calibrate,
+            @Value("${password.hashing.target-latency:PT0.25S}") Duration targetLatency) {
+        int cost = calibrate ? BCryptCostCalibrator.calibrate(targetLatency) : strength;
+        return new BCryptPasswordEncoder(cost);
     }
 
     @Bean
@@ -45,6 +54,16 @@ public class SecurityConfig {
         return new JwtAuthenticationFilter();
     }
 
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter();
+    }
+
+    @Bean
+    public FeedResponseCacheFilter feedResponseCacheFilter() {
+        return new FeedResponseCacheFilter();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -54,8 +73,10 @@ public class SecurityConfig {
                     .requestMatchers(HttpMethod.POST, "/api/v1/auth/register", "/api/v1/auth/login",
                             "/api/v1/auth/refresh-token").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/v1/posts", "/api/v1/posts/**").permitAll()
+                    .requestMatchers(HttpMethod.POST, "/api/v1/posts/batch").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/v1/users/search").permitAll()
                     .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                    .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                     .requestMatchers(HttpMethod.POST, "/api/v1/auth/logout").authenticated()
                     .requestMatchers(HttpMethod.PUT, "/api/v1/users/**", "/api/v1/posts/**", "/api/v1/comments/**").authenticated()
                     .requestMatchers(HttpMethod.DELETE, "/api/v1/users/**", "/api/v1/posts/**", "/api/v1/comments/**").authenticated()
@@ -63,7 +84,9 @@ public class SecurityConfig {
                     .requestMatchers(HttpMethod.GET, "/api/v1/users/me").authenticated()
                     .anyRequest().permitAll()
             )
-            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter(), JwtAuthenticationFilter.class)
+            .addFilterAfter(feedResponseCacheFilter(), RateLimitFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,79 @@
+package com.example.learning.controller;
+
+import com.example.learning.dto.response.ApiResponse;
+import com.example.learning.exception.InvalidRequestException;
+import com.example.learning.exception.RebuildInProgressException;
+import com.example.learning.search.PostSearchIndex;
+import com.example.learning.service.ArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class AdminController {
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @PostMapping("/posts/{postId}/restore")
+    public ResponseEntity<ApiResponse<Void>> restorePost(@PathVariable Long postId) {
+        log.info("Restoring post: {}", postId);
+        archiveService.restorePost(postId);
+        return restored("Post restored successfully");
+    }
+
+    @PostMapping("/comments/{commentId}/restore")
+    public ResponseEntity<ApiResponse<Void>> restoreComment(@PathVariable Long commentId) {
+        log.info("Restoring comment: {}", commentId);
+        archiveService.restoreComment(commentId);
+        return restored("Comment restored successfully");
+    }
+
+    @PostMapping("/users/{userId}/restore")
+    public ResponseEntity<ApiResponse<Void>> restoreUser(@PathVariable Long userId) {
+        log.info("Restoring user: {}", userId);
+        archiveService.restoreUser(userId);
+        return restored("User restored successfully");
+    }
+
+    /**
+     * Rebuilds the post search index in the background; searches keep using the current
+     * index until the new one is complete.
+     */
+    @PostMapping("/search/posts/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuildPostSearchIndex() {
+        if (!postSearchIndex.isEnabled()) {
+            throw new InvalidRequestException("The post search index is disabled");
+        }
+        if (!postSearchIndex.requestRebuild()) {
+            throw new RebuildInProgressException("A post search index rebuild is already running");
+        }
+        log.info("Rebuilding post search index");
+        ApiResponse<Void> response = ApiResponse.<Void>builder()
+                .success(true)
+                .message("Post search index rebuild started")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    private ResponseEntity<ApiResponse<Void>> restored(String message) {
+        ApiResponse<Void> response = ApiResponse.<Void>builder()
+                .success(true)
+                .message(message)
+                .timestamp(LocalDateTime.now())
+                .build();
+        
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -5,9 +5,15 @@ import com.example.learning.dto.response.ApiResponse;
 import com.example.learning.dto.response.CommentResponse;
 import com.example.learning.dto.response.PageResponse;
 import com.example.learning.service.CommentService;
+import com.example.learning.service.LikeService;
+import com.example.learning.util.AuthenticationUtils;
+import com.example.learning.util.PageCursor;
+import com.example.learning.util.PaginationUtils;
+import com.example.learning.util.ResourceVersion;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -15,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
 
 @RestController
@@ -26,6 +33,15 @@ public class CommentController {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private AuthenticationUtils authenticationUtils;
+
+    @Value("${pagination.max-size:100}")
+    private int maxPageSize;
+
     @PostMapping
     public ResponseEntity<ApiResponse<CommentResponse>> createComment(
             @PathVariable Long postId,
@@ -33,7 +49,7 @@ public class CommentController {
             Authentication authentication) {
         
         log.info("Creating comment on post: {}", postId);
-        Long userId = extractUserIdFromAuthentication(authentication);
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
         CommentResponse data = commentService.createComment(postId, userId, request);
         
         ApiResponse<CommentResponse> response = ApiResponse.<CommentResponse>builder()
@@ -52,10 +68,29 @@ public class CommentController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sort,
-            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
+            WebRequest webRequest,
+            Authentication authentication) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort));
-        PageResponse<CommentResponse> data = commentService.getCommentsByPost(postId, pageable);
+        PaginationUtils.checkPage(page, size, maxPageSize);
+
+        // "Liked by me" makes the page differ per reader, so only anonymous reads are conditional.
+        Long viewerId = authenticationUtils.extractUserIdFromAuthentication(authentication);
+        ResourceVersion version = viewerId == null ? commentService.getCommentsVersion(postId).orElse(null) : null;
+        if (version != null && version.checkNotModified(webRequest)) {
+            return null;
+        }
+
+        PageResponse<CommentResponse> data;
+        if (cursor != null) {
+            data = commentService.getCommentsByPost(postId, PageCursor.decode(cursor), size);
+        } else {
+            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort).and(Sort.by(direction, "id")));
+            data = commentService.getCommentsByPost(postId, pageable, includeTotal);
+        }
+        likeService.applyToComments(data.getContent(), viewerId);
         
         ApiResponse<PageResponse<CommentResponse>> response = ApiResponse.<PageResponse<CommentResponse>>builder()
                 .success(true)
@@ -66,11 +101,6 @@ public class CommentController {
         
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
-
-    private Long extractUserIdFromAuthentication(Authentication authentication) {
-        // Placeholder implementation
-        return 1L;
-    }
 }
 
 @RestController
@@ -82,6 +112,9 @@ class CommentDetailController {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private AuthenticationUtils authenticationUtils;
+
     @PutMapping("/{commentId}")
     public ResponseEntity<ApiResponse<CommentResponse>> updateComment(
             @PathVariable Long commentId,
@@ -89,7 +122,7 @@ class CommentDetailController {
             Authentication authentication) {
         
         log.info("Updating comment: {}", commentId);
-        Long userId = extractUserIdFromAuthentication(authentication);
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
         CommentResponse data = commentService.updateComment(commentId, userId, request);
         
         ApiResponse<CommentResponse> response = ApiResponse.<CommentResponse>builder()
@@ -108,7 +141,7 @@ class CommentDetailController {
             Authentication authentication) {
         
         log.info("Deleting comment: {}", commentId);
-        Long userId = extractUserIdFromAuthentication(authentication);
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
         commentService.deleteComment(commentId, userId);
         
         ApiResponse<Void> response = ApiResponse.<Void>builder()
@@ -119,8 +152,4 @@ class CommentDetailController {
         
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
-
-    private Long extractUserIdFromAuthentication(Authentication authentication) {
-        return 1L;
-    }
 }
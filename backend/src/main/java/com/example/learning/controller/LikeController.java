@@ -0,0 +1,73 @@
+package com.example.learning.controller;
+
+import com.example.learning.dto.response.ApiResponse;
+import com.example.learning.dto.response.LikeResponse;
+import com.example.learning.service.LikeService;
+import com.example.learning.util.AuthenticationUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1")
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class LikeController {
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private AuthenticationUtils authenticationUtils;
+
+    @PutMapping("/posts/{postId}/like")
+    public ResponseEntity<ApiResponse<LikeResponse>> likePost(
+            @PathVariable Long postId,
+            Authentication authentication) {
+        
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
+        return likeResponse(likeService.likePost(postId, userId), "Post liked");
+    }
+
+    @DeleteMapping("/posts/{postId}/like")
+    public ResponseEntity<ApiResponse<LikeResponse>> unlikePost(
+            @PathVariable Long postId,
+            Authentication authentication) {
+        
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
+        return likeResponse(likeService.unlikePost(postId, userId), "Post unliked");
+    }
+
+    @PutMapping("/comments/{commentId}/like")
+    public ResponseEntity<ApiResponse<LikeResponse>> likeComment(
+            @PathVariable Long commentId,
+            Authentication authentication) {
+        
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
+        return likeResponse(likeService.likeComment(commentId, userId), "Comment liked");
+    }
+
+    @DeleteMapping("/comments/{commentId}/like")
+    public ResponseEntity<ApiResponse<LikeResponse>> unlikeComment(
+            @PathVariable Long commentId,
+            Authentication authentication) {
+        
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
+        return likeResponse(likeService.unlikeComment(commentId, userId), "Comment unliked");
+    }
+
+    private ResponseEntity<ApiResponse<LikeResponse>> likeResponse(LikeResponse data, String message) {
+        ApiResponse<LikeResponse> response = ApiResponse.<LikeResponse>builder()
+                .success(true)
+                .message(message)
+                .data(data)
+                .timestamp(LocalDateTime.now())
+                .build();
+        
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
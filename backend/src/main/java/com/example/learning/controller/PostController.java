@@ -1,14 +1,26 @@
 package com.example.learning.controller;
 
+import com.example.learning.cache.PostDetailCache;
 import com.example.learning.dto.request.CreatePostRequest;
+import com.example.learning.dto.request.PostIdsRequest;
 import com.example.learning.dto.request.UpdatePostRequest;
 import com.example.learning.dto.response.ApiResponse;
 import com.example.learning.dto.response.PageResponse;
+import com.example.learning.dto.response.PostBatchResponse;
 import com.example.learning.dto.response.PostResponse;
+import com.example.learning.dto.response.PostSummaryResponse;
+import com.example.learning.exception.InvalidRequestException;
+import com.example.learning.ingest.PostViewCounter;
+import com.example.learning.service.LikeService;
 import com.example.learning.service.PostService;
+import com.example.learning.util.AuthenticationUtils;
+import com.example.learning.util.PageCursor;
+import com.example.learning.util.PaginationUtils;
+import com.example.learning.util.ResourceVersion;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -16,7 +28,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/posts")
@@ -27,14 +45,31 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private PostDetailCache postDetailCache;
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private AuthenticationUtils authenticationUtils;
+
+    @Value("${posts.batch.max-ids:100}")
+    private int maxBatchIds;
+
+    @Value("${pagination.max-size:100}")
+    private int maxPageSize;
+
     @PostMapping
     public ResponseEntity<ApiResponse<PostResponse>> createPost(
             @Valid @RequestBody CreatePostRequest request,
             Authentication authentication) {
         
         log.info("Creating new post");
-        // Extract user ID from authentication context
-        Long userId = extractUserIdFromAuthentication(authentication);
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
         PostResponse data = postService.createPost(userId, request);
         
         ApiResponse<PostResponse> response = ApiResponse.<PostResponse>builder()
@@ -48,16 +83,27 @@ public class PostController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<PageResponse<PostResponse>>> getAllPosts(
+    public ResponseEntity<ApiResponse<PageResponse<PostSummaryResponse>>> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sort,
-            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
+            Authentication authentication) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort));
-        PageResponse<PostResponse> data = postService.getAllPosts(pageable);
+        PaginationUtils.checkPage(page, size, maxPageSize);
+
+        PageResponse<PostSummaryResponse> data;
+        if (cursor != null) {
+            data = postService.getAllPosts(PageCursor.decode(cursor), size);
+        } else {
+            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort).and(Sort.by(direction, "id")));
+            data = postService.getAllPosts(pageable, includeTotal);
+        }
+        likeService.applyToSummaries(data.getContent(), authenticationUtils.extractUserIdFromAuthentication(authentication));
         
-        ApiResponse<PageResponse<PostResponse>> response = ApiResponse.<PageResponse<PostResponse>>builder()
+        ApiResponse<PageResponse<PostSummaryResponse>> response = ApiResponse.<PageResponse<PostSummaryResponse>>builder()
                 .success(true)
                 .message("Posts retrieved successfully")
                 .data(data)
@@ -67,10 +113,46 @@ public class PostController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<PostBatchResponse>> getPostsByIds(
+            @RequestParam List<Long> ids,
+            Authentication authentication) {
+        
+        log.info("Fetching {} posts by id", ids.size());
+        return batchResponse(ids, authenticationUtils.extractUserIdFromAuthentication(authentication));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<PostBatchResponse>> getPostsByIdsBatch(
+            @Valid @RequestBody PostIdsRequest request,
+            Authentication authentication) {
+        
+        log.info("Fetching {} posts by id", request.getIds().size());
+        return batchResponse(request.getIds(), authenticationUtils.extractUserIdFromAuthentication(authentication));
+    }
+
     @GetMapping("/{postId}")
-    public ResponseEntity<ApiResponse<PostResponse>> getPostById(@PathVariable Long postId) {
+    public ResponseEntity<ApiResponse<PostResponse>> getPostById(
+            @PathVariable Long postId,
+            WebRequest webRequest,
+            Authentication authentication) {
+        
         log.info("Fetching post: {}", postId);
-        PostResponse data = postService.getPostById(postId);
+        PostResponse cached = postDetailCache.get(postId, postService::getPostById);
+        postViewCounter.record(postId);
+        PostResponse liked = likeService.applyToPost(cached,
+                authenticationUtils.extractUserIdFromAuthentication(authentication));
+        // Views are left out of the version on purpose: otherwise every view would defeat the 304.
+        String resource = "post-" + postId + "-" + liked.getLikeCount()
+                + (Boolean.TRUE.equals(liked.getLikedByMe()) ? "-liked" : "");
+        ResourceVersion version = ResourceVersion.of(resource,
+                ResourceVersion.newest(liked.getUpdatedAt(), liked.getAuthor().getUpdatedAt()), liked.getCommentCount());
+        if (version.checkNotModified(webRequest)) {
+            return null;
+        }
+        PostResponse data = postViewCounter.isEnabled()
+                ? liked.toBuilder().viewCount(postViewCounter.viewCount(postId)).build()
+                : liked;
         
         ApiResponse<PostResponse> response = ApiResponse.<PostResponse>builder()
                 .success(true)
@@ -89,7 +171,7 @@ public class PostController {
             Authentication authentication) {
         
         log.info("Updating post: {}", postId);
-        Long userId = extractUserIdFromAuthentication(authentication);
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
         PostResponse data = postService.updatePost(postId, userId, request);
         
         ApiResponse<PostResponse> response = ApiResponse.<PostResponse>builder()
@@ -108,7 +190,7 @@ public class PostController {
             Authentication authentication) {
         
         log.info("Deleting post: {}", postId);
-        Long userId = extractUserIdFromAuthentication(authentication);
+        Long userId = authenticationUtils.extractUserIdFromAuthentication(authentication);
         postService.deletePost(postId, userId);
         
         ApiResponse<Void> response = ApiResponse.<Void>builder()
@@ -120,17 +202,47 @@ public class PostController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<PageResponse<PostSummaryResponse>>> searchPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
+            Authentication authentication) {
+        
+        PaginationUtils.checkPage(page, size, maxPageSize);
+
+        log.info("Searching posts with query: {}", q);
+        Pageable pageable = PageRequest.of(page, size);
+        PageResponse<PostSummaryResponse> data = postService.searchPosts(q, pageable, includeTotal);
+        likeService.applyToSummaries(data.getContent(), authenticationUtils.extractUserIdFromAuthentication(authentication));
+        
+        ApiResponse<PageResponse<PostSummaryResponse>> response = ApiResponse.<PageResponse<PostSummaryResponse>>builder()
+                .success(true)
+                .message("Search results")
+                .data(data)
+                .timestamp(LocalDateTime.now())
+                .build();
+        
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<PageResponse<PostResponse>>> getPostsByUser(
+    public ResponseEntity<ApiResponse<PageResponse<PostSummaryResponse>>> getPostsByUser(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
+            Authentication authentication) {
         
+        PaginationUtils.checkPage(page, size, maxPageSize);
+
         log.info("Fetching posts for user: {}", userId);
         Pageable pageable = PageRequest.of(page, size);
-        PageResponse<PostResponse> data = postService.getPostsByUser(userId, pageable);
+        PageResponse<PostSummaryResponse> data = postService.getPostsByUser(userId, pageable, includeTotal);
+        likeService.applyToSummaries(data.getContent(), authenticationUtils.extractUserIdFromAuthentication(authentication));
         
-        ApiResponse<PageResponse<PostResponse>> response = ApiResponse.<PageResponse<PostResponse>>builder()
+        ApiResponse<PageResponse<PostSummaryResponse>> response = ApiResponse.<PageResponse<PostSummaryResponse>>builder()
                 .success(true)
                 .message("User posts retrieved successfully")
                 .data(data)
@@ -140,10 +252,41 @@ public class PostController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
-    private Long extractUserIdFromAuthentication(Authentication authentication) {
-        // This is a simplified version. In a real application, you would need to get the user ID 
-        // from the JWT token or the authenticated principal
-        // For now, we'll need to modify this logic based on how you store user ID in the authentication
-        return 1L; // Placeholder - implement based on your authentication mechanism
+    /**
+     * Serves cached posts directly and loads the rest in one query, keeping the requested order.
+     */
+    private ResponseEntity<ApiResponse<PostBatchResponse>> batchResponse(List<Long> ids, Long viewerId) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > maxBatchIds) {
+            throw new InvalidRequestException("At most " + maxBatchIds + " post ids can be requested at once");
+        }
+
+        Map<Long, PostResponse> found = postDetailCache.getAll(requested, postService::getPostsByIds);
+        Map<Long, Long> viewCounts = postViewCounter.isEnabled() && !found.isEmpty()
+                ? postViewCounter.viewCounts(found.keySet())
+                : Map.of();
+        List<PostResponse> posts = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            PostResponse post = found.get(id);
+            if (post != null) {
+                posts.add(viewCounts.containsKey(id) ? post.toBuilder().viewCount(viewCounts.get(id)).build() : post);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        posts = likeService.applyToPosts(posts, viewerId);
+
+        ApiResponse<PostBatchResponse> response = ApiResponse.<PostBatchResponse>builder()
+                .success(true)
+                .message("Posts retrieved successfully")
+                .data(PostBatchResponse.builder()
+                        .posts(posts)
+                        .missingIds(missingIds)
+                        .build())
+                .timestamp(LocalDateTime.now())
+                .build();
+        
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 }
@@ -7,9 +7,13 @@ import com.example.learning.dto.response.PageResponse;
 import com.example.learning.dto.response.UserResponse;
 import com.example.learning.dto.response.UserStatisticsResponse;
 import com.example.learning.service.UserService;
+import com.example.learning.util.PageCursor;
+import com.example.learning.util.PaginationUtils;
+import com.example.learning.util.ResourceVersion;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -17,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
 
 @RestController
@@ -28,15 +33,27 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Value("${pagination.max-size:100}")
+    private int maxPageSize;
+
     @GetMapping
     public ResponseEntity<ApiResponse<PageResponse<UserResponse>>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sort,
-            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort));
-        PageResponse<UserResponse> data = userService.getAllUsers(pageable);
+        PaginationUtils.checkPage(page, size, maxPageSize);
+
+        PageResponse<UserResponse> data;
+        if (cursor != null) {
+            data = userService.getAllUsers(PageCursor.decode(cursor), size);
+        } else {
+            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort).and(Sort.by(direction, "id")));
+            data = userService.getAllUsers(pageable, includeTotal);
+        }
         
         ApiResponse<PageResponse<UserResponse>> response = ApiResponse.<PageResponse<UserResponse>>builder()
                 .success(true)
@@ -49,8 +66,12 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<ApiResponse<UserResponse>> getUserById(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<UserResponse>> getUserById(@PathVariable Long userId, WebRequest webRequest) {
         log.info("Fetching user: {}", userId);
+        ResourceVersion version = userService.getUserVersion(userId).orElse(null);
+        if (version != null && version.checkNotModified(webRequest)) {
+            return null;
+        }
         UserResponse data = userService.getUserById(userId);
         
         ApiResponse<UserResponse> response = ApiResponse.<UserResponse>builder()
@@ -102,11 +123,14 @@ public class UserController {
     public ResponseEntity<ApiResponse<PageResponse<UserResponse>>> searchUsers(
             @RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         
+        PaginationUtils.checkPage(page, size, maxPageSize);
+
         log.info("Searching users with query: {}", q);
         Pageable pageable = PageRequest.of(page, size);
-        PageResponse<UserResponse> data = userService.searchUsers(q, pageable);
+        PageResponse<UserResponse> data = userService.searchUsers(q, pageable, includeTotal);
         
         ApiResponse<PageResponse<UserResponse>> response = ApiResponse.<PageResponse<UserResponse>>builder()
                 .success(true)
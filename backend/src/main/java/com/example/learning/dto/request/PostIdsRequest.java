@@ -0,0 +1,15 @@
+package com.example.learning.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostIdsRequest {
+
+    @NotEmpty(message = "At least one post id is required")
+    private List<@NotNull Long> ids;
+}
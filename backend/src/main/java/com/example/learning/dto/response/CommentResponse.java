@@ -12,6 +12,8 @@ public class CommentResponse {
     private String content;
     private UserResponse author;
     private Long postId;
+    private Integer likeCount;
+    private Boolean likedByMe;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,13 @@
+package com.example.learning.dto.response;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LikeResponse {
+    private Long targetId;
+    private Integer likeCount;
+    private Boolean likedByMe;
+}
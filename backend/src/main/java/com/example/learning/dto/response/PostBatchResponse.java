@@ -0,0 +1,13 @@
+package com.example.learning.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostBatchResponse {
+    private List<PostResponse> posts;
+    private List<Long> missingIds;
+}
@@ -7,7 +7,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class PostResponse {
     private Long id;
     private String title;
@@ -15,6 +15,9 @@ public class PostResponse {
     private String status;
     private UserResponse author;
     private Integer commentCount;
+    private Long viewCount;
+    private Integer likeCount;
+    private Boolean likedByMe;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
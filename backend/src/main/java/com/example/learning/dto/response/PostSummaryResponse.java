@@ -0,0 +1,23 @@
+package com.example.learning.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostSummaryResponse {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private String status;
+    private UserResponse author;
+    private Integer commentCount;
+    private Integer likeCount;
+    private Boolean likedByMe;
+    private Integer wordCount;
+    private Integer readingTimeMinutes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
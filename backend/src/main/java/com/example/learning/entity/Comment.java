@@ -1,5 +1,6 @@
 package com.example.learning.entity;
 
+import com.example.learning.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -13,7 +14,7 @@ import java.time.LocalDateTime;
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(name = "content", nullable = false, columnDefinition = "TEXT")
@@ -29,6 +30,9 @@ public class Comment {
     @ToString.Exclude
     private User author;
 
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private Integer likeCount;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -42,6 +46,9 @@ public class Comment {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        if (likeCount == null) {
+            likeCount = 0;
+        }
     }
 
     @PreUpdate
@@ -0,0 +1,25 @@
+package com.example.learning.entity;
+
+/**
+ * What a like points at, with the join table that records it.
+ */
+public enum LikeTarget {
+    POST("post_likes", "post_id"),
+    COMMENT("comment_likes", "comment_id");
+
+    private final String table;
+    private final String column;
+
+    LikeTarget(String table, String column) {
+        this.table = table;
+        this.column = column;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public String column() {
+        return column;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.learning.entity;
 
+import com.example.learning.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -15,7 +16,7 @@ import java.util.Set;
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(name = "title", nullable = false, length = 255)
@@ -33,6 +34,21 @@ public class Post {
     @ToString.Exclude
     private User author;
 
+    @Column(name = "excerpt", length = 300)
+    private String excerpt;
+
+    @Column(name = "word_count")
+    private Integer wordCount;
+
+    @Column(name = "reading_time_minutes")
+    private Integer readingTimeMinutes;
+
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private Integer commentCount;
+
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private Integer likeCount;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     @ToString.Exclude
     private Set<Comment> comments = new HashSet<>();
@@ -53,6 +69,12 @@ public class Post {
         if (status == null) {
             status = PostStatus.DRAFT;
         }
+        if (commentCount == null) {
+            commentCount = 0;
+        }
+        if (likeCount == null) {
+            likeCount = 0;
+        }
     }
 
     @PreUpdate
@@ -1,5 +1,6 @@
 package com.example.learning.entity;
 
+import com.example.learning.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -15,7 +16,7 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(name = "username", unique = true, nullable = false, length = 50)
@@ -46,6 +47,9 @@ public class User {
     @Column(name = "role", length = 50)
     private String role;
 
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -73,6 +77,9 @@ public class User {
         updatedAt = LocalDateTime.now();
         status = UserStatus.ACTIVE;
         role = "USER";
+        if (tokenVersion == null) {
+            tokenVersion = 0;
+        }
     }
 
     @PreUpdate
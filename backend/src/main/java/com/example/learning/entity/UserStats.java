@@ -0,0 +1,37 @@
+package com.example.learning.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Counters for one user. Written only through the upserts in UserStatsRepository, never by
+ * dirty checking, so concurrent writers add deltas instead of overwriting each other.
+ */
+@Entity
+@Table(name = "user_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "post_count", nullable = false)
+    private Integer postCount;
+
+    @Column(name = "comment_count", nullable = false)
+    private Integer commentCount;
+
+    @Column(name = "like_count", nullable = false)
+    private Long likeCount;
+
+    @Column(name = "last_login_at")
+    private LocalDateTime lastLoginAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
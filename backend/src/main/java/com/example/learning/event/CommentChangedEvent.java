@@ -0,0 +1,7 @@
+package com.example.learning.event;
+
+/**
+ * Published inside the transaction that creates, updates or deletes a comment.
+ */
+public record CommentChangedEvent(Long commentId, Long postId) {
+}
@@ -0,0 +1,10 @@
+package com.example.learning.event;
+
+import com.example.learning.entity.LikeTarget;
+
+/**
+ * Published inside the transaction that adds or removes a like. Only published when a row
+ * actually changed, so a repeated like or unlike does not produce one.
+ */
+public record LikeChangedEvent(LikeTarget target, Long targetId, Long userId, boolean liked) {
+}
@@ -0,0 +1,8 @@
+package com.example.learning.event;
+
+/**
+ * Published inside the transaction that creates, updates or deletes a post.
+ * {@code published} is true when the post was or is visible in the public feed.
+ */
+public record PostChangedEvent(Long postId, boolean published) {
+}
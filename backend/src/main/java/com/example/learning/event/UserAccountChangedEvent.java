@@ -0,0 +1,7 @@
+package com.example.learning.event;
+
+/**
+ * Published inside the transaction that changes a user's profile, credentials or status.
+ */
+public record UserAccountChangedEvent(Long userId, String email) {
+}
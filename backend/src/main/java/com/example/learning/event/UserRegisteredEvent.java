@@ -0,0 +1,7 @@
+package com.example.learning.event;
+
+/**
+ * Published inside the transaction that creates a user account.
+ */
+public record UserRegisteredEvent(Long userId) {
+}
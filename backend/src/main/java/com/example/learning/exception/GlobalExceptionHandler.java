@@ -1,6 +1,7 @@
 package com.example.learning.exception;
 
 import com.example.learning.dto.response.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -83,6 +84,93 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiResponse<?>> handleInvalidCursorException(
+            InvalidCursorException ex, WebRequest request) {
+        
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .error(ApiResponse.ErrorDetails.builder()
+                        .code("INVALID_CURSOR")
+                        .message(ex.getMessage())
+                        .build())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiResponse<?>> handleInvalidRequestException(
+            InvalidRequestException ex, WebRequest request) {
+        
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .error(ApiResponse.ErrorDetails.builder()
+                        .code("INVALID_REQUEST")
+                        .message(ex.getMessage())
+                        .build())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<?>> handleServiceUnavailableException(
+            ServiceUnavailableException ex, WebRequest request) {
+        
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .error(ApiResponse.ErrorDetails.builder()
+                        .code("SERVICE_UNAVAILABLE")
+                        .message(ex.getMessage())
+                        .build())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(response, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(RestoreConflictException.class)
+    public ResponseEntity<ApiResponse<?>> handleRestoreConflictException(
+            RestoreConflictException ex, WebRequest request) {
+        
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .error(ApiResponse.ErrorDetails.builder()
+                        .code("RESTORE_CONFLICT")
+                        .message(ex.getMessage())
+                        .build())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(RebuildInProgressException.class)
+    public ResponseEntity<ApiResponse<?>> handleRebuildInProgressException(
+            RebuildInProgressException ex, WebRequest request) {
+
+        ApiResponse<?> response = ApiResponse.builder()
+                .success(false)
+                .message(ex.getMessage())
+                .error(ApiResponse.ErrorDetails.builder()
+                        .code("REBUILD_IN_PROGRESS")
+                        .message(ex.getMessage())
+                        .build())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<?>> handleMethodArgumentNotValidException(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -0,0 +1,7 @@
+package com.example.learning.exception;
+
+public class RebuildInProgressException extends RuntimeException {
+    public RebuildInProgressException(String message) {
+        super(message);
+    }
+}
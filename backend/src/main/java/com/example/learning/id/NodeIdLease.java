@@ -0,0 +1,112 @@
+package com.example.learning.id;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases this process its Snowflake node id from id_node_leases, so no two running instances
+ * issue ids under the same node. The lease is claimed at startup, before Hibernate builds its
+ * id generators, renewed on a schedule and released on shutdown. When it cannot be renewed,
+ * the generator stops issuing ids at the point the lease runs out.
+ */
+@Component
+@DependsOn("flywayInitializer")
+@Slf4j
+public class NodeIdLease implements HibernatePropertiesCustomizer {
+
+    // Single-table UPDATE assigns left to right, so previous_expires_at gets the old expiry.
+    private static final String CLAIM_SQL = "UPDATE id_node_leases SET owner = ?, previous_expires_at = expires_at, "
+            + "expires_at = NOW(6) + INTERVAL ? SECOND WHERE expires_at < NOW(6)%s ORDER BY node_id LIMIT 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ids.node-id:#{null}}")
+    private Long requestedNodeId;
+
+    @Value("${ids.lease.ttl-seconds:30}")
+    private int ttlSeconds;
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    private long nodeId;
+    private Snowflake snowflake;
+
+    /**
+     * Claims the requested node id, or the lowest free one when none is configured, and fails
+     * startup when it is held by a running instance. The ids a previous holder issued end at most
+     * {@link Snowflake#MAX_BORROW_MILLIS} after its lease did, so ours start after that. Expiry is
+     * compared in the database's clock and carried over as an age, so the two clocks' time zones
+     * do not matter.
+     */
+    @PostConstruct
+    void claim() {
+        if (requestedNodeId != null) {
+            Snowflake.forNode(requestedNodeId);
+        }
+        long requestedAt = System.currentTimeMillis();
+        int claimed = requestedNodeId != null
+                ? jdbcTemplate.update(CLAIM_SQL.formatted(" AND node_id = ?"), owner, ttlSeconds, requestedNodeId)
+                : jdbcTemplate.update(CLAIM_SQL.formatted(""), owner, ttlSeconds);
+        if (claimed == 0) {
+            throw new IllegalStateException(requestedNodeId != null
+                    ? "Node id " + requestedNodeId + " is leased by another running instance"
+                    : "All " + (Snowflake.MAX_NODE_ID + 1) + " node ids are leased by running instances");
+        }
+        Map<String, Object> lease = jdbcTemplate.queryForMap("SELECT node_id, "
+                + "TIMESTAMPDIFF(MICROSECOND, previous_expires_at, NOW(6)) DIV 1000 AS expired_millis_ago "
+                + "FROM id_node_leases WHERE owner = ?", owner);
+        nodeId = ((Number) lease.get("node_id")).longValue();
+        long expiredMillisAgo = ((Number) lease.get("expired_millis_ago")).longValue();
+
+        snowflake = Snowflake.forNode(nodeId);
+        snowflake.startAfter(System.currentTimeMillis() - expiredMillisAgo + Snowflake.MAX_BORROW_MILLIS);
+        snowflake.issueUntil(requestedAt + TimeUnit.SECONDS.toMillis(ttlSeconds));
+        log.info("Leased Snowflake node id {} as {}", nodeId, owner);
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(SnowflakeIdGenerator.NODE_ID_SETTING, nodeId);
+    }
+
+    @Scheduled(fixedDelayString = "${ids.lease.renew-interval-ms:10000}")
+    public void renew() {
+        long requestedAt = System.currentTimeMillis();
+        try {
+            int renewed = jdbcTemplate.update("UPDATE id_node_leases SET expires_at = NOW(6) + INTERVAL ? SECOND "
+                    + "WHERE node_id = ? AND owner = ?", ttlSeconds, nodeId, owner);
+            if (renewed == 1) {
+                snowflake.issueUntil(requestedAt + TimeUnit.SECONDS.toMillis(ttlSeconds));
+            } else {
+                log.error("Lease on node id {} was taken over; no more ids will be issued until restart", nodeId);
+                snowflake.issueUntil(requestedAt);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not renew the lease on node id {}, ids stop when it runs out: {}", nodeId, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void release() {
+        snowflake.issueUntil(System.currentTimeMillis());
+        jdbcTemplate.update("UPDATE id_node_leases SET owner = '', expires_at = NOW(6) WHERE node_id = ? AND owner = ?",
+                nodeId, owner);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.learning.id;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time-ordered 53-bit ids: 41 bits of milliseconds since 2024-01-01, 5 bits of node id and
+ * 7 bits of per-millisecond sequence. 53 bits keeps ids exact as JavaScript numbers.
+ * When a millisecond's sequence runs out, or the clock steps back, the generator borrows the next
+ * millisecond instead of waiting, so ids stay strictly increasing per node. Borrowing runs at most
+ * {@link #MAX_BORROW_MILLIS} ahead of the clock; past that it waits, which bounds how far ahead of
+ * its lease a previous holder of the node id can have issued.
+ */
+public final class Snowflake {
+
+    public static final int NODE_BITS = 5;
+    public static final int SEQUENCE_BITS = 7;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    public static final long MAX_BORROW_MILLIS = 1000;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final Map<Long, Snowflake> NODES = new ConcurrentHashMap<>();
+
+    private final long nodeId;
+
+    /**
+     * Last issued (timestamp << SEQUENCE_BITS | sequence); incrementing it carries into the timestamp.
+     */
+    private final AtomicLong state;
+
+    private volatile long issueUntilMillis = Long.MAX_VALUE;
+
+    private Snowflake(long nodeId) {
+        this.nodeId = nodeId;
+        this.state = new AtomicLong((System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS);
+    }
+
+    /**
+     * The generator shared by every entity type on this node.
+     */
+    public static Snowflake forNode(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ", got " + nodeId);
+        }
+        return NODES.computeIfAbsent(nodeId, Snowflake::new);
+    }
+
+    /**
+     * Issues every later id from a millisecond after {@code epochMillis}.
+     */
+    public void startAfter(long epochMillis) {
+        state.accumulateAndGet(((epochMillis - EPOCH_MILLIS) << SEQUENCE_BITS) | SEQUENCE_MASK, Math::max);
+    }
+
+    /**
+     * Refuses ids once the clock passes {@code epochMillis}: the node id is only this process's
+     * until its lease runs out.
+     */
+    public void issueUntil(long epochMillis) {
+        issueUntilMillis = epochMillis;
+    }
+
+    public long nextId() {
+        while (true) {
+            long clock = System.currentTimeMillis();
+            if (clock > issueUntilMillis) {
+                throw new IllegalStateException("Node id " + nodeId + " is no longer leased to this process");
+            }
+            long now = clock - EPOCH_MILLIS;
+            long last = state.get();
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if ((next >>> SEQUENCE_BITS) - now > MAX_BORROW_MILLIS) {
+                LockSupport.parkNanos(100_000);
+                continue;
+            }
+            if (state.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.learning.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. The node id is read from the
+ * {@value #NODE_ID_SETTING} Hibernate setting, which {@link NodeIdLease} sets to the id it leased.
+ */
+public class SnowflakeIdGenerator implements IdentifierGenerator {
+
+    public static final String NODE_ID_SETTING = "app.ids.node-id";
+
+    private final Snowflake snowflake;
+
+    public SnowflakeIdGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object nodeId = context.getServiceRegistry()
+                .getService(ConfigurationService.class)
+                .getSettings()
+                .get(NODE_ID_SETTING);
+        if (nodeId == null) {
+            throw new IllegalStateException("No Snowflake node id: " + NODE_ID_SETTING + " is not set");
+        }
+        this.snowflake = Snowflake.forNode(Long.parseLong(nodeId.toString()));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return snowflake.nextId();
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.learning.ingest;
+
+import com.example.learning.event.CommentChangedEvent;
+import com.example.learning.exception.ServiceUnavailableException;
+import com.example.learning.id.NodeIdLease;
+import com.example.learning.id.Snowflake;
+import com.example.learning.repository.UserStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Group commit for new comments. Request threads enqueue already validated comments and wait;
+ * a single writer thread drains the queue and inserts up to max-batch-size rows in one
+ * transaction, flushing when the batch is full or max-delay-ms after its first row arrived.
+ * A caller is acknowledged only once its batch has committed. A caller that times out and a
+ * writer picking up its comment race to claim it, so a 503 always means the row was never written.
+ */
+@Component
+@Slf4j
+public class CommentWriteQueue implements SmartLifecycle {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO comments (id, content, post_id, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String ADJUST_COUNT_SQL =
+            "UPDATE posts SET comment_count = comment_count + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${comments.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${comments.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${comments.write-behind.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${comments.write-behind.max-delay-ms:5}")
+    private long maxDelayMs;
+
+    @Value("${comments.write-behind.ack-timeout-ms:5000}")
+    private long ackTimeoutMs;
+
+    @Value("${comments.write-behind.commit-timeout-seconds:10}")
+    private int commitTimeoutSeconds;
+
+    @Value("${comments.write-behind.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    @Autowired
+    private NodeIdLease nodeIdLease;
+
+    private BlockingQueue<PendingComment> queue;
+
+    private Snowflake snowflake;
+
+    private TransactionTemplate transaction;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private DistributionSummary batchSizes;
+
+    private Timer commitTimer;
+
+    private Counter rejectedCounter;
+
+    private Counter timedOutCounter;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        snowflake = Snowflake.forNode(nodeIdLease.getNodeId());
+        transaction = new TransactionTemplate(transactionManager);
+        // Bounds how long a caller whose comment is already being committed can wait past its ack timeout.
+        transaction.setTimeout(commitTimeoutSeconds);
+        Gauge.builder("comments.write-behind.queue.depth", queue, BlockingQueue::size)
+                .description("Comments waiting for the writer thread")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("comments.write-behind.batch.size")
+                .description("Rows inserted per group commit")
+                .register(meterRegistry);
+        commitTimer = Timer.builder("comments.write-behind.commit.latency")
+                .description("Time to insert and commit one batch")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("comments.write-behind.rejected")
+                .description("Comments refused because the queue was full or stopped")
+                .register(meterRegistry);
+        timedOutCounter = Counter.builder("comments.write-behind.timed-out")
+                .description("Comments withdrawn unwritten because the writer did not reach them in time")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a comment and blocks until the batch holding it has committed.
+     *
+     * @return the id and creation time the row was stored with
+     */
+    public StoredComment write(Long postId, Long userId, String content) {
+        PendingComment pending = new PendingComment(snowflake.nextId(), postId, userId, content,
+                LocalDateTime.now(), new CompletableFuture<>(), new AtomicBoolean());
+        if (!running || !queue.offer(pending)) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Comment service is busy, please retry shortly");
+        }
+
+        try {
+            try {
+                pending.ack().get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                if (pending.take()) {
+                    timedOutCounter.increment();
+                    throw new ServiceUnavailableException("Comment was not saved in time, please retry shortly");
+                }
+                // The writer already took it, so its transaction decides; that is bounded by commit-timeout.
+                pending.ack().get();
+            }
+            return new StoredComment(pending.id(), pending.createdAt());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Comment write was interrupted");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Comment write failed", ex.getCause());
+        }
+    }
+
+    private void drain() {
+        List<PendingComment> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingComment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                // Comments whose caller already gave up are dropped, never written.
+                batch.removeIf(pending -> !pending.take());
+                if (!batch.isEmpty()) {
+                    batchSizes.record(batch.size());
+                    flush(batch);
+                }
+                batch.clear();
+            } catch (InterruptedException ex) {
+                fail(batch);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(List<PendingComment> batch) {
+        long started = System.nanoTime();
+        try {
+            transaction.executeWithoutResult(status -> insert(batch));
+            commitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            batch.forEach(pending -> pending.ack().complete(null));
+        } catch (DataAccessException ex) {
+            if (batch.size() == 1) {
+                batch.get(0).ack().completeExceptionally(ex);
+                return;
+            }
+            // One bad row (say, a post deleted since validation) must not fail its neighbours.
+            log.warn("Comment batch of {} rows failed, retrying one row at a time: {}", batch.size(), ex.getMessage());
+            batch.forEach(pending -> flush(List.of(pending)));
+        } catch (RuntimeException ex) {
+            batch.forEach(pending -> pending.ack().completeExceptionally(ex));
+        }
+    }
+
+    private void insert(List<PendingComment> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, pending) -> {
+            Timestamp createdAt = Timestamp.valueOf(pending.createdAt());
+            statement.setLong(1, pending.id());
+            statement.setString(2, pending.content());
+            statement.setLong(3, pending.postId());
+            statement.setLong(4, pending.userId());
+            statement.setTimestamp(5, createdAt);
+            statement.setTimestamp(6, createdAt);
+        });
+
+        // Post and stats rows are locked in id order so concurrent writers cannot deadlock on them.
+        Map<Long, Long> perPost = batch.stream()
+                .collect(Collectors.groupingBy(PendingComment::postId, TreeMap::new, Collectors.counting()));
+        perPost.forEach((postId, count) -> jdbcTemplate.update(ADJUST_COUNT_SQL, count, postId));
+        Map<Long, Long> perAuthor = batch.stream()
+                .collect(Collectors.groupingBy(PendingComment::userId, TreeMap::new, Collectors.counting()));
+        perAuthor.forEach((userId, count) -> userStatsRepository.adjust(userId, 0, count.intValue(), 0));
+
+        batch.forEach(pending -> eventPublisher.publishEvent(new CommentChangedEvent(pending.id(), pending.postId())));
+    }
+
+    private void fail(List<PendingComment> batch) {
+        ServiceUnavailableException ex = new ServiceUnavailableException("Comment service is shutting down");
+        batch.forEach(pending -> pending.ack().completeExceptionally(ex));
+        batch.clear();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "comment-writer");
+        writer.start();
+    }
+
+    /**
+     * Stops accepting comments and lets the writer commit everything already queued.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMs);
+            if (writer.isAlive()) {
+                log.warn("Comment writer did not drain within {} ms, abandoning {} queued comments",
+                        shutdownTimeoutMs, queue.size());
+                writer.interrupt();
+                writer.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingComment> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        fail(leftover);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server, so requests still waiting on an acknowledgement are served.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public record StoredComment(Long id, LocalDateTime createdAt) {
+    }
+
+    private record PendingComment(Long id, Long postId, Long userId, String content, LocalDateTime createdAt,
+                                  CompletableFuture<Void> ack, AtomicBoolean taken) {
+
+        /**
+         * Claims the comment for whoever calls first: the writer to insert it, or its timed-out
+         * caller to withdraw it.
+         */
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
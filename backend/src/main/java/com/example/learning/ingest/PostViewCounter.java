@@ -0,0 +1,248 @@
+package com.example.learning.ingest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Post view counts without a row lock per view. Views accumulate in a striped {@link LongAdder}
+ * per post and are flushed to post_views as batched upserts when the flush interval has passed
+ * or max-unflushed views are pending, whichever comes first; that bounds what a crash can lose.
+ * Reads add the unflushed delta to the cached persisted count.
+ */
+@Component
+@Slf4j
+public class PostViewCounter {
+
+    private static final String UPSERT_SQL = "INSERT INTO post_views (post_id, view_count, updated_at) "
+            + "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count), "
+            + "updated_at = VALUES(updated_at)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Long> flushing = new ConcurrentHashMap<>();
+    private final LongAdder unflushed = new LongAdder();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Cache<Long, Long> persisted;
+    private final boolean enabled;
+    private final long flushIntervalNanos;
+    private final long maxUnflushed;
+    private final int flushBatchSize;
+    private final DistributionSummary flushRows;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+
+    private volatile long lastFlushNanos = System.nanoTime();
+
+    public PostViewCounter(NamedParameterJdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${views.enabled:true}") boolean enabled,
+                           @Value("${views.flush-interval-ms:5000}") long flushIntervalMs,
+                           @Value("${views.max-unflushed:10000}") long maxUnflushed,
+                           @Value("${views.flush-batch-size:500}") int flushBatchSize,
+                           @Value("${views.cache.ttl:PT10M}") Duration cacheTtl,
+                           @Value("${views.cache.max-size:100000}") long cacheMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxUnflushed = maxUnflushed;
+        this.flushBatchSize = flushBatchSize;
+        this.persisted = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, persisted, "post-views");
+        Gauge.builder("views.unflushed", unflushed, LongAdder::sum)
+                .description("Views counted in memory but not yet written; lost if the process dies")
+                .register(meterRegistry);
+        Gauge.builder("views.pending-posts", pending, Map::size)
+                .register(meterRegistry);
+        this.flushRows = DistributionSummary.builder("views.flush.rows")
+                .description("Posts upserted per flush")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("views.flush")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("views.flush.failures")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(Long postId) {
+        if (!enabled) {
+            return;
+        }
+        while (true) {
+            LongAdder views = pending.get(postId);
+            if (views == null) {
+                views = pending.computeIfAbsent(postId, id -> new LongAdder());
+            }
+            views.increment();
+            // A flush only drops an adder that reads zero, so if ours is still mapped it saw this view.
+            if (pending.get(postId) == views) {
+                break;
+            }
+            views.decrement();
+        }
+        unflushed.increment();
+    }
+
+    public long viewCount(Long postId) {
+        return persisted.get(postId, id -> loadPersisted(List.of(id)).getOrDefault(id, 0L)) + unflushedFor(postId);
+    }
+
+    /**
+     * Bulk read. Caffeine's bulk load is not atomic against invalidate the way {@code get} is, so
+     * a count read before a flush committed could be stored after the flush invalidated it. Like
+     * PostDetailCache.getAll, loaded counts are stored only if no flush invalidated in between,
+     * re-checked after storing.
+     */
+    public Map<Long, Long> viewCounts(Collection<Long> postIds) {
+        Map<Long, Long> counts = new HashMap<>(persisted.getAllPresent(postIds));
+        List<Long> missing = postIds.stream()
+                .filter(id -> !counts.containsKey(id))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            long invalidationsAtLoad = invalidations.get();
+            Map<Long, Long> loaded = loadPersisted(missing);
+            missing.forEach(id -> counts.put(id, loaded.getOrDefault(id, 0L)));
+            if (invalidations.get() == invalidationsAtLoad) {
+                missing.forEach(id -> persisted.put(id, counts.get(id)));
+                if (invalidations.get() != invalidationsAtLoad) {
+                    missing.forEach(persisted::invalidate);
+                }
+            }
+        }
+        counts.replaceAll((postId, count) -> count + unflushedFor(postId));
+        return counts;
+    }
+
+    private long unflushedFor(Long postId) {
+        LongAdder views = pending.get(postId);
+        return (views != null ? views.sum() : 0) + flushing.getOrDefault(postId, 0L);
+    }
+
+    private Map<Long, Long> loadPersisted(Collection<? extends Long> postIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT post_id, view_count FROM post_views WHERE post_id IN (:ids)",
+                new MapSqlParameterSource("ids", postIds),
+                row -> {
+                    counts.put(row.getLong("post_id"), row.getLong("view_count"));
+                });
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${views.check-interval-ms:250}")
+    public void flushIfDue() {
+        if (!enabled) {
+            return;
+        }
+        if (unflushed.sum() >= maxUnflushed || System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * Moves every pending delta into post_views, in post id order and flush-batch-size rows per
+     * statement. Deltas of a failed batch go back to the accumulators for the next flush.
+     */
+    public synchronized void flush() {
+        lastFlushNanos = System.nanoTime();
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                flushing.put(entry.getKey(), delta);
+                deltas.put(entry.getKey(), delta);
+            } else {
+                // Idle since the last flush; a view that lands first keeps the adder, and one
+                // that lands after sees it gone and moves to a new adder.
+                pending.computeIfPresent(entry.getKey(),
+                        (postId, views) -> views == entry.getValue() && views.sum() == 0 ? null : views);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        long total = deltas.values().stream().mapToLong(Long::longValue).sum();
+        unflushed.add(-total);
+        flushRows.record(deltas.size());
+
+        List<Map.Entry<Long, Long>> rows = new ArrayList<>(deltas.entrySet());
+        flushTimer.record(() -> {
+            for (int from = 0; from < rows.size(); from += flushBatchSize) {
+                List<Map.Entry<Long, Long>> batch = rows.subList(from, Math.min(from + flushBatchSize, rows.size()));
+                try {
+                    upsert(batch);
+                    // Adding the delta to a cached count would double it if that count was loaded
+                    // after the upsert committed, so the next read reloads it instead.
+                    invalidations.incrementAndGet();
+                    batch.forEach(row -> {
+                        persisted.invalidate(row.getKey());
+                        flushing.remove(row.getKey());
+                    });
+                } catch (DataAccessException ex) {
+                    flushFailures.increment();
+                    log.warn("Could not flush views for {} posts, keeping them for the next flush: {}",
+                            batch.size(), ex.getMessage());
+                    batch.forEach(row -> {
+                        flushing.remove(row.getKey());
+                        restore(row.getKey(), row.getValue());
+                    });
+                }
+            }
+        });
+    }
+
+    private void upsert(List<Map.Entry<Long, Long>> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPSERT_SQL, batch, batch.size(), (statement, row) -> {
+            statement.setLong(1, row.getKey());
+            statement.setLong(2, row.getValue());
+            statement.setTimestamp(3, now);
+        });
+    }
+
+    private void restore(Long postId, long delta) {
+        pending.computeIfAbsent(postId, id -> new LongAdder()).add(delta);
+        unflushed.add(delta);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (enabled) {
+            flush();
+        }
+    }
+}
@@ -1,29 +1,60 @@
 package com.example.learning.repository;
 
 import com.example.learning.entity.Comment;
+import com.example.learning.repository.projection.ListVersionRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    @Query("SELECT c FROM Comment c WHERE c.deletedAt IS NULL AND c.post.id = :postId")
-    Page<Comment> findByPostId(@Param("postId") Long postId, Pageable pageable);
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.deletedAt IS NULL AND c.post.id = :postId")
+    Slice<Comment> findByPostId(@Param("postId") Long postId, Pageable pageable);
 
-    @Query("SELECT c FROM Comment c WHERE c.deletedAt IS NULL AND c.id = :id")
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.deletedAt IS NULL AND c.post.id = :postId " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByPostIdLatest(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.deletedAt IS NULL AND c.post.id = :postId " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByPostIdBefore(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.deletedAt IS NULL AND c.id = :id")
     Optional<Comment> findByIdActive(@Param("id") Long id);
 
+    @Query("SELECT c.author.id FROM Comment c WHERE c.deletedAt IS NULL AND c.id = :id")
+    Optional<Long> findActiveAuthorIdById(@Param("id") Long id);
+
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId AND c.deletedAt IS NULL")
     Integer countByPostId(@Param("postId") Long postId);
 
+    @Query("SELECT new com.example.learning.repository.projection.ListVersionRow(" +
+           "MAX(GREATEST(c.updatedAt, COALESCE(a.updatedAt, c.updatedAt))), COUNT(c), COALESCE(SUM(c.likeCount), 0)) " +
+           "FROM Comment c JOIN c.author a WHERE c.post.id = :postId AND c.deletedAt IS NULL")
+    ListVersionRow findVersionByPostId(@Param("postId") Long postId);
+
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.author.id = :userId AND c.deletedAt IS NULL")
     Integer countByAuthorId(@Param("userId") Long userId);
 
-    @Query("SELECT c FROM Comment c WHERE c.deletedAt IS NULL AND c.author.id = :userId")
+    @Modifying
+    @Query("UPDATE Comment c SET c.likeCount = c.likeCount + :delta WHERE c.id = :commentId")
+    int adjustLikeCount(@Param("commentId") Long commentId, @Param("delta") int delta);
+
+    @Query("SELECT c.likeCount FROM Comment c WHERE c.id = :commentId")
+    Integer findLikeCountById(@Param("commentId") Long commentId);
+
+    @Query(value = "SELECT c FROM Comment c JOIN FETCH c.author WHERE c.deletedAt IS NULL AND c.author.id = :userId",
+           countQuery = "SELECT COUNT(c) FROM Comment c WHERE c.deletedAt IS NULL AND c.author.id = :userId")
     Page<Comment> findByAuthorId(@Param("userId") Long userId, Pageable pageable);
 }
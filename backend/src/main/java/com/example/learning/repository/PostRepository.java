@@ -1,31 +1,100 @@
 package com.example.learning.repository;
 
 import com.example.learning.entity.Post;
-import org.springframework.data.domain.Page;
+import com.example.learning.repository.projection.PostIndexRow;
+import com.example.learning.repository.projection.PostSummaryRow;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-    @Query("SELECT p FROM Post p WHERE p.deletedAt IS NULL AND p.status = 'PUBLISHED'")
-    Page<Post> findAllPublished(Pageable pageable);
+    String SUMMARY_SELECT = "SELECT new com.example.learning.repository.projection.PostSummaryRow(" +
+            "p.id, p.title, p.excerpt, p.status, p.commentCount, p.likeCount, p.wordCount, p.readingTimeMinutes, " +
+            "p.createdAt, p.updatedAt, a.id, a.username, a.avatar) " +
+            "FROM Post p JOIN p.author a ";
 
-    @Query("SELECT p FROM Post p WHERE p.deletedAt IS NULL AND p.id = :id")
+    @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND p.status = 'PUBLISHED'")
+    Slice<PostSummaryRow> findAllPublished(Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.deletedAt IS NULL AND p.status = 'PUBLISHED'")
+    long countPublished();
+
+    @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND p.status = 'PUBLISHED' " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryRow> findPublishedLatest(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND p.status = 'PUBLISHED' " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryRow> findPublishedBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.deletedAt IS NULL AND p.id = :id")
     Optional<Post> findByIdActive(@Param("id") Long id);
 
-    @Query("SELECT p FROM Post p WHERE p.deletedAt IS NULL AND p.author.id = :userId")
-    Page<Post> findByAuthorId(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT COUNT(p) > 0 FROM Post p WHERE p.deletedAt IS NULL AND p.id = :id")
+    boolean existsActiveById(@Param("id") Long id);
+
+    @Query("SELECT p.author.id FROM Post p WHERE p.deletedAt IS NULL AND p.id = :id")
+    Optional<Long> findActiveAuthorIdById(@Param("id") Long id);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.deletedAt IS NULL AND p.id IN :ids")
+    List<Post> findAllByIdActive(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND p.id IN :ids")
+    List<PostSummaryRow> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.learning.repository.projection.PostIndexRow(p.id, p.title, p.content) " +
+           "FROM Post p WHERE p.deletedAt IS NULL AND p.id = :id")
+    Optional<PostIndexRow> findIndexRowById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.learning.repository.projection.PostIndexRow(p.id, p.title, p.content) " +
+           "FROM Post p WHERE p.deletedAt IS NULL AND p.id > :afterId ORDER BY p.id")
+    List<PostIndexRow> findIndexRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND a.id = :userId")
+    Slice<PostSummaryRow> findByAuthorId(@Param("userId") Long userId, Pageable pageable);
 
     @Query("SELECT COUNT(p) FROM Post p WHERE p.author.id = :userId AND p.deletedAt IS NULL")
     Integer countByAuthorId(@Param("userId") Long userId);
 
-    @Query("SELECT p FROM Post p WHERE p.deletedAt IS NULL AND " +
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.id = :postId")
+    int adjustCommentCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + :delta WHERE p.id = :postId")
+    int adjustLikeCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :postId")
+    Integer findLikeCountById(@Param("postId") Long postId);
+
+    @Query("SELECT p FROM Post p WHERE p.deletedAt IS NULL AND p.excerpt IS NULL ORDER BY p.id")
+    List<Post> findMissingSummary(Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE posts p SET p.comment_count = " +
+                   "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.deleted_at IS NULL)",
+           nativeQuery = true)
+    int recountCommentCounts();
+
+    @Query(SUMMARY_SELECT + "WHERE p.deletedAt IS NULL AND " +
+           "(LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')))")
+    Slice<PostSummaryRow> searchPosts(@Param("query") String query, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.deletedAt IS NULL AND " +
            "(LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Post> searchPosts(@Param("query") String query, Pageable pageable);
+    long countSearchPosts(@Param("query") String query);
 }
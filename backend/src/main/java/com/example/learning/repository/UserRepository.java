@@ -1,12 +1,15 @@
 package com.example.learning.repository;
 
 import com.example.learning.entity.User;
-import org.springframework.data.domain.Page;
+import com.example.learning.repository.projection.UserSearchRow;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -26,11 +29,47 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%'))) " +
            "AND u.deletedAt IS NULL")
-    Page<User> searchUsers(@Param("query") String query, Pageable pageable);
+    Slice<User> searchUsers(@Param("query") String query, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE " +
+           "(LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "AND u.deletedAt IS NULL")
+    long countSearchUsers(@Param("query") String query);
 
     @Query("SELECT u FROM User u WHERE u.deletedAt IS NULL")
-    Page<User> findAllActive(Pageable pageable);
+    Slice<User> findAllActive(Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.deletedAt IS NULL")
+    long countActive();
+
+    @Query("SELECT u FROM User u WHERE u.deletedAt IS NULL ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findActiveLatest(Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.deletedAt IS NULL " +
+           "AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findActiveBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                Pageable pageable);
 
     @Query("SELECT u FROM User u WHERE u.deletedAt IS NULL AND u.id = :id")
     Optional<User> findByIdActive(@Param("id") Long id);
+
+    @Query("SELECT new com.example.learning.repository.projection.UserSearchRow(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName) " +
+           "FROM User u WHERE u.deletedAt IS NULL AND u.id = :id")
+    Optional<UserSearchRow> findSearchRowById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.learning.repository.projection.UserSearchRow(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName) " +
+           "FROM User u WHERE u.deletedAt IS NULL AND u.id > :afterId ORDER BY u.id")
+    List<UserSearchRow> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u.updatedAt FROM User u WHERE u.deletedAt IS NULL AND u.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.deletedAt IS NULL AND u.id = :id")
+    Optional<Integer> findActiveTokenVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,61 @@
+package com.example.learning.repository;
+
+import com.example.learning.entity.UserStats;
+import com.example.learning.repository.projection.UserStatisticsRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    @Query("SELECT new com.example.learning.repository.projection.UserStatisticsRow(" +
+           "u.id, u.createdAt, u.status, s.postCount, s.commentCount, s.likeCount, s.lastLoginAt) " +
+           "FROM User u LEFT JOIN UserStats s ON s.userId = u.id WHERE u.deletedAt IS NULL AND u.id = :userId")
+    Optional<UserStatisticsRow> findStatisticsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Adds the deltas to the user's counters, creating the row when it is missing.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, post_count, comment_count, like_count, updated_at) " +
+                   "VALUES (:userId, :posts, :comments, :likes, NOW(6)) ON DUPLICATE KEY UPDATE " +
+                   "post_count = post_count + VALUES(post_count), " +
+                   "comment_count = comment_count + VALUES(comment_count), " +
+                   "like_count = like_count + VALUES(like_count), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int adjust(@Param("userId") Long userId, @Param("posts") int posts, @Param("comments") int comments,
+               @Param("likes") long likes);
+
+    /**
+     * Takes a deleted post off its author's counters, with the likes read from the post row in
+     * the same statement so a like committed after the post was loaded is subtracted too.
+     */
+    @Modifying
+    @Query(value = "UPDATE user_stats s JOIN posts p ON p.user_id = s.user_id " +
+                   "SET s.post_count = s.post_count - 1, s.like_count = s.like_count - p.like_count, " +
+                   "s.updated_at = NOW(6) WHERE p.id = :postId",
+           nativeQuery = true)
+    int subtractPost(@Param("postId") Long postId);
+
+    /**
+     * Comment counterpart of {@link #subtractPost}.
+     */
+    @Modifying
+    @Query(value = "UPDATE user_stats s JOIN comments c ON c.user_id = s.user_id " +
+                   "SET s.comment_count = s.comment_count - 1, s.like_count = s.like_count - c.like_count, " +
+                   "s.updated_at = NOW(6) WHERE c.id = :commentId",
+           nativeQuery = true)
+    int subtractComment(@Param("commentId") Long commentId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, last_login_at, updated_at) " +
+                   "VALUES (:userId, :loginAt, NOW(6)) ON DUPLICATE KEY UPDATE " +
+                   "last_login_at = VALUES(last_login_at), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int recordLogin(@Param("userId") Long userId, @Param("loginAt") LocalDateTime loginAt);
+}
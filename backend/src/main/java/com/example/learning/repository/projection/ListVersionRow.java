@@ -0,0 +1,10 @@
+package com.example.learning.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Newest updatedAt of a listing's rows and their authors, row count and like total,
+ * used as the listing's conditional GET validator.
+ */
+public record ListVersionRow(LocalDateTime lastModified, Long count, Long likes) {
+}
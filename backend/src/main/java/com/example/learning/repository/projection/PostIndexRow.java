@@ -0,0 +1,7 @@
+package com.example.learning.repository.projection;
+
+/**
+ * Fields of a post that go into the full-text index.
+ */
+public record PostIndexRow(Long id, String title, String content) {
+}
@@ -0,0 +1,23 @@
+package com.example.learning.repository.projection;
+
+import com.example.learning.entity.Post;
+import java.time.LocalDateTime;
+
+/**
+ * Feed row selected without the post body.
+ */
+public record PostSummaryRow(
+        Long id,
+        String title,
+        String excerpt,
+        Post.PostStatus status,
+        Integer commentCount,
+        Integer likeCount,
+        Integer wordCount,
+        Integer readingTimeMinutes,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long authorId,
+        String authorUsername,
+        String authorAvatar) {
+}
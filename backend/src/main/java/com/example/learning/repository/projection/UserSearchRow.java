@@ -0,0 +1,7 @@
+package com.example.learning.repository.projection;
+
+/**
+ * Fields of a user that go into the user search index.
+ */
+public record UserSearchRow(Long id, String username, String email, String firstName, String lastName) {
+}
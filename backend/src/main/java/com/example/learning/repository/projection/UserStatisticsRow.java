@@ -0,0 +1,17 @@
+package com.example.learning.repository.projection;
+
+import com.example.learning.entity.User;
+import java.time.LocalDateTime;
+
+/**
+ * A user joined to their counters; the counters are null when the user has no stats row yet.
+ */
+public record UserStatisticsRow(
+        Long userId,
+        LocalDateTime createdAt,
+        User.UserStatus status,
+        Integer postCount,
+        Integer commentCount,
+        Long likeCount,
+        LocalDateTime lastLoginAt) {
+}
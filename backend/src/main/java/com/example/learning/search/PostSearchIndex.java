@@ -0,0 +1,458 @@
+package com.example.learning.search;
+
+import com.example.learning.event.PostChangedEvent;
+import com.example.learning.exception.RebuildInProgressException;
+import com.example.learning.repository.PostRepository;
+import com.example.learning.repository.projection.PostIndexRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * On-disk Lucene index over post titles and content, analyzed with English stemming.
+ * Kept in step with MySQL from committed post changes; searches return ids in relevance order.
+ * A rebuild writes a fresh index into its own directory while the live one keeps serving, then
+ * swaps it in and names it in the CURRENT file, so a crash mid-rebuild leaves the old index.
+ */
+@Component
+@Slf4j
+public class PostSearchIndex {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_CONTENT = "content";
+    private static final float TITLE_BOOST = 2.0f;
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final String GENERATION_PREFIX = "index-";
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.index.path:data/post-index}")
+    private Path indexPath;
+
+    @Value("${search.index.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${search.index.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+
+    /**
+     * Listeners and commits hold the read lock; a rebuild takes the write lock only to swap.
+     */
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Generation live;
+
+    /**
+     * Ids of posts changed while a rebuild reads its batches; replayed before the swap.
+     */
+    private volatile Set<Long> changedDuringRebuild;
+
+    /**
+     * False until a complete index is live, so search falls back to SQL instead of an empty index.
+     */
+    private volatile boolean ready;
+
+    private Timer searchTimer;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(indexPath);
+        Path current = currentGeneration();
+        if (current != null) {
+            live = Generation.open(current, FSDirectory.open(current), analyzer);
+            ready = true;
+        } else {
+            // Changes are applied here until the first rebuild swaps in a real index.
+            live = Generation.open(null, new ByteBuffersDirectory(), analyzer);
+        }
+        deleteGenerationsExcept(current);
+        searchTimer = Timer.builder("search.posts.latency")
+                .description("Time spent querying the post search index")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * @return matching post ids for the requested window, best match first
+     */
+    public SearchHits search(String queryText, int offset, int limit) {
+        Query query = buildQuery(queryText);
+        if (query == null) {
+            return new SearchHits(List.of(), 0, false);
+        }
+        return searchTimer.record(() -> {
+            try {
+                return search(query, offset, limit);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Post search failed", ex);
+            }
+        });
+    }
+
+    private SearchHits search(Query query, int offset, int limit) throws IOException {
+        while (true) {
+            Generation current = live;
+            IndexSearcher searcher;
+            try {
+                searcher = current.searcherManager().acquire();
+            } catch (AlreadyClosedException ex) {
+                // A rebuild swapped this generation out and closed it; search the new one.
+                if (live == current) {
+                    throw ex;
+                }
+                continue;
+            }
+            try {
+                TopDocs topDocs = searcher.search(query, offset + limit);
+                List<Long> ids = new ArrayList<>(limit);
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc hit = topDocs.scoreDocs[i];
+                    ids.add(Long.valueOf(searcher.storedFields().document(hit.doc).get(FIELD_ID)));
+                }
+                return new SearchHits(ids, topDocs.totalHits.value,
+                        topDocs.totalHits.relation != TotalHits.Relation.EQUAL_TO);
+            } finally {
+                current.searcherManager().release(searcher);
+            }
+        }
+    }
+
+    private Query buildQuery(String queryText) {
+        QueryBuilder builder = new QueryBuilder(analyzer);
+        Query title = builder.createBooleanQuery(FIELD_TITLE, queryText);
+        Query content = builder.createBooleanQuery(FIELD_CONTENT, queryText);
+        if (title == null && content == null) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (title != null) {
+            query.add(new BoostQuery(title, TITLE_BOOST), BooleanClause.Occur.SHOULD);
+        }
+        if (content != null) {
+            query.add(content, BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        swapLock.readLock().lock();
+        try {
+            Set<Long> changed = changedDuringRebuild;
+            if (changed != null) {
+                changed.add(event.postId());
+            }
+            index(live, event.postId());
+            live.searcherManager().maybeRefresh();
+        } catch (IOException ex) {
+            log.error("Could not index post {}: {}", event.postId(), ex.getMessage());
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds a new index when none is complete yet, or when a rebuild is requested,
+     * in the background; search uses SQL until the first index is live.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled && (!ready || rebuildOnStartup)) {
+            requestRebuild();
+        }
+    }
+
+    /**
+     * Starts a rebuild in the background.
+     *
+     * @return false when one is already running
+     */
+    public boolean requestRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuildGeneration();
+            } catch (IOException | RuntimeException ex) {
+                log.error("Post search index rebuild failed: {}", ex.getMessage(), ex);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    public void rebuild() throws IOException {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RebuildInProgressException("A post search index rebuild is already running");
+        }
+        try {
+            rebuildGeneration();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Reads posts in id order a batch at a time into a new directory. A post changed after its
+     * batch was read is re-read before the swap, so the new index never keeps the older row.
+     */
+    private void rebuildGeneration() throws IOException {
+        long started = System.nanoTime();
+        Path path = indexPath.resolve(GENERATION_PREFIX + System.currentTimeMillis());
+        Generation next = Generation.open(path, FSDirectory.open(path), analyzer);
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        Generation previous;
+        long indexed = 0;
+        try {
+            long lastId = 0;
+            List<PostIndexRow> batch;
+            do {
+                batch = postRepository.findIndexRowsAfter(lastId, PageRequest.of(0, rebuildBatchSize));
+                for (PostIndexRow row : batch) {
+                    next.writer().addDocument(toDocument(row));
+                    lastId = row.id();
+                }
+                indexed += batch.size();
+            } while (batch.size() == rebuildBatchSize);
+            reindex(next, drain(changed));
+            next.writer().commit();
+
+            swapLock.writeLock().lock();
+            try {
+                reindex(next, drain(changed));
+                next.writer().commit();
+                writeCurrent(path);
+                next.searcherManager().maybeRefresh();
+                previous = live;
+                live = next;
+                ready = true;
+            } finally {
+                changedDuringRebuild = null;
+                swapLock.writeLock().unlock();
+            }
+        } catch (IOException | RuntimeException ex) {
+            changedDuringRebuild = null;
+            next.close();
+            IOUtils.rm(path);
+            throw ex;
+        }
+        previous.close();
+        if (previous.path() != null) {
+            IOUtils.rm(previous.path());
+        }
+        log.info("Rebuilt post search index with {} posts in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private List<Long> drain(Set<Long> changed) {
+        List<Long> ids = new ArrayList<>(changed);
+        ids.forEach(changed::remove);
+        return ids;
+    }
+
+    private void reindex(Generation generation, List<Long> postIds) throws IOException {
+        for (Long postId : postIds) {
+            index(generation, postId);
+        }
+    }
+
+    private void index(Generation generation, Long postId) throws IOException {
+        PostIndexRow row = postRepository.findIndexRowById(postId).orElse(null);
+        if (row != null) {
+            generation.writer().updateDocument(idTerm(row.id()), toDocument(row));
+        } else {
+            generation.writer().deleteDocuments(idTerm(postId));
+        }
+    }
+
+    /**
+     * The generation a finished rebuild named in CURRENT, or null when there is none.
+     */
+    private Path currentGeneration() throws IOException {
+        Path file = indexPath.resolve(CURRENT_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Path current = indexPath.resolve(Files.readString(file, StandardCharsets.UTF_8).strip());
+        if (!Files.isDirectory(current)) {
+            return null;
+        }
+        try (Directory directory = FSDirectory.open(current)) {
+            return DirectoryReader.indexExists(directory) ? current : null;
+        }
+    }
+
+    private void writeCurrent(Path generation) throws IOException {
+        Path pending = indexPath.resolve(CURRENT_FILE + ".tmp");
+        Files.writeString(pending, generation.getFileName().toString(), StandardCharsets.UTF_8);
+        IOUtils.fsync(pending, false);
+        Files.move(pending, indexPath.resolve(CURRENT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        IOUtils.fsync(indexPath, true);
+    }
+
+    /**
+     * Removes generations left by rebuilds that never swapped in, such as one cut off by a crash.
+     */
+    private void deleteGenerationsExcept(Path current) throws IOException {
+        List<Path> stale;
+        try (Stream<Path> paths = Files.list(indexPath)) {
+            stale = paths.filter(Files::isDirectory)
+                    .filter(path -> path.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .filter(path -> !path.equals(current))
+                    .toList();
+        }
+        for (Path path : stale) {
+            log.info("Removing unfinished post search index {}", path);
+            IOUtils.rm(path);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms:5000}")
+    public void commit() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        swapLock.readLock().lock();
+        try {
+            if (live.writer().hasUncommittedChanges()) {
+                live.writer().commit();
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        rebuildExecutor.shutdownNow();
+        swapLock.writeLock().lock();
+        try {
+            live.close();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private Document toDocument(PostIndexRow row) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, String.valueOf(row.id()), Field.Store.YES));
+        document.add(new TextField(FIELD_TITLE, row.title(), Field.Store.NO));
+        document.add(new TextField(FIELD_CONTENT, row.content(), Field.Store.NO));
+        return document;
+    }
+
+    private Term idTerm(Long postId) {
+        return new Term(FIELD_ID, String.valueOf(postId));
+    }
+
+    public record SearchHits(List<Long> ids, long totalHits, boolean approximate) {
+    }
+
+    /**
+     * One index directory with its writer and searchers. {@code path} is null for the
+     * in-memory placeholder used before the first rebuild.
+     */
+    private record Generation(Path path, Directory directory, IndexWriter writer, SearcherManager searcherManager) {
+
+        static Generation open(Path path, Directory directory, Analyzer analyzer) throws IOException {
+            IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            return new Generation(path, directory, writer, new SearcherManager(writer, null));
+        }
+
+        void close() throws IOException {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+    }
+}
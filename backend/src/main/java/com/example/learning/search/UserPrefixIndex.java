@@ -0,0 +1,288 @@
+package com.example.learning.search;
+
+import com.example.learning.event.UserAccountChangedEvent;
+import com.example.learning.event.UserRegisteredEvent;
+import com.example.learning.repository.UserRepository;
+import com.example.learning.repository.projection.UserSearchRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index for user type-ahead. Every normalized token of a user's username,
+ * email local part and names is kept in a sorted set as "token\0id", so a prefix lookup is a
+ * range scan. Exact username matches rank first, then username prefixes, then other fields.
+ */
+@Component
+@Slf4j
+public class UserPrefixIndex {
+
+    private static final char SEPARATOR = '\u0000';
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final NavigableSet<String> entries = new ConcurrentSkipListSet<>();
+    private final Map<Long, IndexedUser> users = new ConcurrentHashMap<>();
+
+    /** Users refreshed while a rebuild runs; null otherwise. */
+    private volatile Set<Long> refreshedDuringRebuild;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${search.users.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.users.max-matches:1000}")
+    private int maxMatches;
+
+    @Value("${search.users.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("search.users.indexed", users, Map::size)
+                .description("Users held in the prefix index")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Every query term must prefix some token of the user. Exact username matches are collected
+     * first and username prefixes second, so the max-matches cap can only cut the weakest ranks.
+     * The rest come from the term with the fewest index entries and are checked against the other
+     * terms through their tokens, so a common first name cannot crowd true matches out of the result.
+     *
+     * @return all matching ids, best match first; {@code truncated} when more than max-matches matched
+     */
+    public SearchHits search(String query) {
+        String wholeQuery = normalize(query).strip();
+        List<String> terms = Arrays.stream(NON_WORD.split(wholeQuery))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toList();
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), false);
+        }
+
+        Set<Long> matches = new HashSet<>();
+        boolean truncated = collect(withPrefix(wholeQuery + SEPARATOR), terms,
+                        user -> user.username().equals(wholeQuery), matches)
+                || collect(withPrefix(wholeQuery), terms, user -> user.username().startsWith(wholeQuery), matches)
+                || collect(rarestRange(terms), terms, user -> true, matches);
+
+        List<Long> ranked = matches.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingInt((IndexedUser user) -> user.rank(wholeQuery))
+                        .thenComparing(IndexedUser::username))
+                .map(IndexedUser::id)
+                .toList();
+        return new SearchHits(ranked, truncated);
+    }
+
+    /**
+     * Adds the users in {@code range} that match every term and {@code accept} to {@code matches}.
+     *
+     * @return true when max-matches was reached before the range was exhausted
+     */
+    private boolean collect(NavigableSet<String> range, List<String> terms, Predicate<IndexedUser> accept,
+                            Set<Long> matches) {
+        for (String entry : range) {
+            Long id = Long.valueOf(entry.substring(entry.lastIndexOf(SEPARATOR) + 1));
+            if (matches.contains(id)) {
+                continue;
+            }
+            IndexedUser user = users.get(id);
+            if (user == null || !accept.test(user) || !user.matchesAll(terms)) {
+                continue;
+            }
+            if (matches.size() >= maxMatches) {
+                return true;
+            }
+            matches.add(id);
+        }
+        return false;
+    }
+
+    private NavigableSet<String> rarestRange(List<String> terms) {
+        NavigableSet<String> rarest = null;
+        int rarestSize = Integer.MAX_VALUE;
+        for (String term : terms) {
+            NavigableSet<String> range = withPrefix(term);
+            int size = countUpTo(range, rarestSize);
+            if (size < rarestSize) {
+                rarest = range;
+                rarestSize = size;
+            }
+        }
+        return rarest;
+    }
+
+    private NavigableSet<String> withPrefix(String prefix) {
+        return entries.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Size of the range, counted no further than {@code limit}: only the smallest range matters.
+     */
+    private static int countUpTo(NavigableSet<String> range, int limit) {
+        int count = 0;
+        for (Iterator<String> it = range.iterator(); it.hasNext() && count < limit; it.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    public void index(UserSearchRow row) {
+        users.compute(row.id(), (id, previous) -> reindex(id, previous, row));
+    }
+
+    private IndexedUser reindex(Long id, IndexedUser previous, UserSearchRow row) {
+        if (previous != null) {
+            previous.tokens().forEach(token -> entries.remove(token + SEPARATOR + id));
+        }
+        Set<String> tokens = tokensOf(row);
+        tokens.forEach(token -> entries.add(token + SEPARATOR + id));
+        return new IndexedUser(id, normalize(row.username()), tokens);
+    }
+
+    public void remove(Long userId) {
+        users.computeIfPresent(userId, (id, previous) -> {
+            previous.tokens().forEach(token -> entries.remove(token + SEPARATOR + id));
+            return null;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        refresh(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        refresh(event.userId());
+    }
+
+    private void refresh(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> refreshed = refreshedDuringRebuild;
+        if (refreshed != null) {
+            refreshed.add(userId);
+        }
+        userRepository.findSearchRowById(userId)
+                .ifPresentOrElse(this::index, () -> remove(userId));
+    }
+
+    /**
+     * Loads the index from the users table in id order, one batch of projected rows at a time.
+     * A batch can be read before a concurrent commit whose refresh then lands first, so users
+     * refreshed since the rebuild started keep their refreshed entry. The check runs inside the
+     * same {@code compute} as the refresh's own write, so the two cannot interleave.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        Set<Long> refreshed = ConcurrentHashMap.newKeySet();
+        refreshedDuringRebuild = refreshed;
+        try {
+            long lastId = 0;
+            List<UserSearchRow> batch;
+            do {
+                batch = userRepository.findSearchRowsAfter(lastId, PageRequest.of(0, rebuildBatchSize));
+                for (UserSearchRow row : batch) {
+                    users.compute(row.id(), (id, previous) ->
+                            refreshed.contains(id) ? previous : reindex(id, previous, row));
+                    lastId = row.id();
+                }
+            } while (batch.size() == rebuildBatchSize);
+        } finally {
+            refreshedDuringRebuild = null;
+        }
+        log.info("Built user search index with {} users in {} ms", users.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private Set<String> tokensOf(UserSearchRow row) {
+        Set<String> tokens = new HashSet<>();
+        addTokens(tokens, row.username());
+        addTokens(tokens, row.firstName());
+        addTokens(tokens, row.lastName());
+        if (row.email() != null) {
+            String email = normalize(row.email());
+            tokens.add(email);
+            int at = email.indexOf('@');
+            addTokens(tokens, at > 0 ? email.substring(0, at) : email);
+        }
+        return tokens;
+    }
+
+    private void addTokens(Set<String> tokens, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String normalized = normalize(value).strip();
+        tokens.add(normalized);
+        for (String token : NON_WORD.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record IndexedUser(Long id, String username, Set<String> tokens) {
+
+        boolean matchesAll(List<String> terms) {
+            return terms.stream().allMatch(term -> tokens.stream().anyMatch(token -> token.startsWith(term)));
+        }
+
+        int rank(String query) {
+            if (username.equals(query)) {
+                return 0;
+            }
+            return username.startsWith(query) ? 1 : 2;
+        }
+    }
+
+    public record SearchHits(List<Long> ids, boolean truncated) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.learning.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import java.time.Duration;
+
+/**
+ * Picks the highest BCrypt cost whose hash time on this machine stays within a target latency.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd!";
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration targetLatency) {
+        long targetNanos = targetLatency.toNanos();
+        int cost = MIN_COST;
+
+        // Warm up the JIT so the first measurement is not inflated
+        new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+
+        while (cost < MAX_COST) {
+            long elapsed = measure(cost);
+            // Each additional cost step doubles the work
+            if (elapsed * 2 > targetNanos) {
+                break;
+            }
+            cost++;
+        }
+
+        log.info("Calibrated BCrypt cost {} for target latency {} ms", cost, targetLatency.toMillis());
+        return cost;
+    }
+
+    private static long measure(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
@@ -1,17 +1,24 @@
 package com.example.learning.security;
 
 import com.example.learning.entity.User;
+import com.example.learning.event.UserAccountChangedEvent;
 import com.example.learning.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import java.util.Collection;
-import java.util.Collections;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
 
 @Service
 @Slf4j
@@ -20,19 +27,53 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.user-details-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${security.user-details-cache.ttl:PT5M}")
+    private Duration cacheTtl;
+
+    private Cache<String, UserDetails> userDetailsCache;
+
+    @PostConstruct
+    void init() {
+        userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "user-details");
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserDetails cached = userDetailsCache.getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                getAuthorities(user)
-        );
+        UserDetails userDetails = UserPrincipal.fromUser(user);
+        userDetailsCache.put(email, userDetails);
+        return userDetails;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        userDetailsCache.invalidate(event.email());
+        log.debug("Evicted cached user details for user: {}", event.userId());
+    }
+
+    public long getCacheSize() {
+        return userDetailsCache.estimatedSize();
     }
 
-    private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        return Collections.singleton(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
+    public CacheStats getCacheStats() {
+        return userDetailsCache.stats();
     }
 }
@@ -1,9 +1,11 @@
 package com.example.learning.security;
 
+import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -12,6 +14,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -22,15 +25,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private TokenVersionIndex tokenVersionIndex;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
-                var userDetails = customUserDetailsService.loadUserByUsername(email);
+            Optional<Claims> claims = tokenProvider.verifyToken(jwt);
+
+            if (claims.isPresent() && isCurrentVersion(claims.get())) {
+                UserDetails userDetails = claims.get().get(JwtProvider.CLAIM_USER_ID) != null
+                        ? UserPrincipal.fromClaims(claims.get())
+                        : customUserDetailsService.loadUserByUsername(claims.get().getSubject());
                 var authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -43,6 +52,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Tokens minted before a password change or account deletion carry an older version.
+     * Tokens without a user id claim predate versioning and fall back to loading the user.
+     */
+    private boolean isCurrentVersion(Claims claims) {
+        Long userId = claims.get(JwtProvider.CLAIM_USER_ID, Long.class);
+        return userId == null
+                || tokenVersionIndex.isCurrent(userId, claims.get(JwtProvider.CLAIM_TOKEN_VERSION, Integer.class));
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,17 +1,25 @@
 package com.example.learning.security;
 
+import com.example.learning.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class JwtProvider {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "tv";
+
     @Value("${jwt.secret:YourSuperSecretKeyThatIsAtLeast32CharactersLongForHS256Algorithm}")
     private String jwtSecret;
 
@@ -21,43 +29,71 @@ public class JwtProvider {
     @Value("${jwt.refresh-expiration:604800000}")
     private long refreshTokenExpiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
-    public String generateToken(String email) {
-        return buildToken(email, jwtExpiration);
+    public String generateToken(User user) {
+        return buildToken(user, jwtExpiration);
     }
 
-    public String generateRefreshToken(String email) {
-        return buildToken(email, refreshTokenExpiration);
+    public String generateRefreshToken(User user) {
+        return buildToken(user, refreshTokenExpiration);
     }
 
-    private String buildToken(String email, long expiration) {
+    private String buildToken(User user, long expiration) {
         return Jwts.builder()
-                .setSubject(email)
+                .setSubject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith((javax.crypto.SecretKey) getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    /**
+     * Verifies the token signature and expiry once and returns its claims.
+     * Tokens seen before are answered from {@link VerifiedTokenCache} without another HMAC check.
+     * Tokens revoked through {@link #revokeToken(String)} are rejected.
+     */
+    public Optional<Claims> verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        return verifyToken(token, TokenDigest.of(token));
     }
 
-    public boolean validateToken(String token) {
+    private Optional<Claims> verifyToken(String token, TokenDigest digest) {
+        if (tokenRevocationIndex.isRevoked(digest)) {
+            log.debug("Rejected revoked JWT token");
+            return Optional.empty();
+        }
+
+        Claims cached = verifiedTokenCache.get(digest);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
         try {
-            Jwts.parser()
-                    .verifyWith((javax.crypto.SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedTokenCache.put(digest, claims);
+            return Optional.of(claims);
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token: {}", ex.getMessage());
         } catch (ExpiredJwtException ex) {
@@ -69,7 +105,27 @@ public class JwtProvider {
         } catch (SignatureException ex) {
             log.error("JWT signature validation failed: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    public boolean revokeToken(String token) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        Optional<Claims> claims = verifyToken(token, digest);
+        claims.ifPresent(c -> tokenRevocationIndex.revoke(digest, c.getExpiration().getTime()));
+        return claims.isPresent();
+    }
+
+    public String getEmailFromToken(String token) {
+        return verifyToken(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid or expired JWT token"));
+    }
+
+    public boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
     }
 
     public long getExpirationTime() {
@@ -0,0 +1,113 @@
+package com.example.learning.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter keyed by caller (user id or client IP) within a route group.
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (GCRA form of a
+ * token bucket), so admission is one CAS with no lock shared between callers.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    public enum Group {
+        AUTH, SEARCH, WRITE, READ
+    }
+
+    private final Map<Group, Limit> limits = new EnumMap<>(Group.class);
+    private final Map<Group, ConcurrentHashMap<String, AtomicLong>> buckets = new EnumMap<>(Group.class);
+    private final Map<Group, Counter> allowedCounters = new EnumMap<>(Group.class);
+    private final Map<Group, Counter> throttledCounters = new EnumMap<>(Group.class);
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${rate-limit.auth.requests-per-minute:20}") long authPerMinute,
+                       @Value("${rate-limit.auth.burst:10}") long authBurst,
+                       @Value("${rate-limit.search.requests-per-minute:60}") long searchPerMinute,
+                       @Value("${rate-limit.search.burst:20}") long searchBurst,
+                       @Value("${rate-limit.write.requests-per-minute:120}") long writePerMinute,
+                       @Value("${rate-limit.write.burst:30}") long writeBurst,
+                       @Value("${rate-limit.read.requests-per-minute:600}") long readPerMinute,
+                       @Value("${rate-limit.read.burst:100}") long readBurst) {
+        limits.put(Group.AUTH, Limit.of(authPerMinute, authBurst));
+        limits.put(Group.SEARCH, Limit.of(searchPerMinute, searchBurst));
+        limits.put(Group.WRITE, Limit.of(writePerMinute, writeBurst));
+        limits.put(Group.READ, Limit.of(readPerMinute, readBurst));
+
+        for (Group group : Group.values()) {
+            ConcurrentHashMap<String, AtomicLong> groupBuckets = new ConcurrentHashMap<>();
+            buckets.put(group, groupBuckets);
+            String tag = group.name().toLowerCase();
+            allowedCounters.put(group, Counter.builder("rate-limit.requests")
+                    .tag("group", tag)
+                    .tag("outcome", "allowed")
+                    .register(meterRegistry));
+            throttledCounters.put(group, Counter.builder("rate-limit.requests")
+                    .tag("group", tag)
+                    .tag("outcome", "throttled")
+                    .register(meterRegistry));
+            Gauge.builder("rate-limit.buckets", groupBuckets, Map::size)
+                    .tag("group", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Takes one token from the caller's bucket.
+     *
+     * @return 0 when the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(Group group, String callerKey) {
+        Limit limit = limits.get(group);
+        AtomicLong bucket = buckets.get(group).computeIfAbsent(callerKey, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + limit.intervalNanos();
+            long waitNanos = next - limit.burstNanos() - now;
+            if (waitNanos > 0) {
+                throttledCounters.get(group).increment();
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                allowedCounters.get(group).increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely; they are indistinguishable from new ones.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (ConcurrentHashMap<String, AtomicLong> groupBuckets : buckets.values()) {
+            int before = groupBuckets.size();
+            groupBuckets.values().removeIf(bucket -> bucket.get() <= now);
+            evicted += before - groupBuckets.size();
+        }
+        log.debug("Evicted {} idle rate limit buckets", evicted);
+    }
+
+    private record Limit(long intervalNanos, long burstNanos) {
+
+        static Limit of(long requestsPerMinute, long burst) {
+            long interval = TimeUnit.MINUTES.toNanos(1) / requestsPerMinute;
+            return new Limit(interval, interval * burst);
+        }
+    }
+}
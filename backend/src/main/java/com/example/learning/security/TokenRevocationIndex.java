@@ -0,0 +1,121 @@
+package com.example.learning.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Server-side record of tokens revoked before their expiry (logout).
+ * A lock-free Bloom filter answers "definitely not revoked" for almost every request;
+ * only filter hits consult the exact set. Entries are swept once the token itself expires.
+ */
+@Component
+@Slf4j
+public class TokenRevocationIndex {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Map<TokenDigest, Long> revoked = new ConcurrentHashMap<>();
+
+    private final int expectedTokens;
+
+    private volatile BloomFilter filter;
+
+    private volatile BloomFilter rebuilding;
+
+    public TokenRevocationIndex(@Value("${jwt.revocation.expected-tokens:100000}") int expectedTokens,
+                                MeterRegistry meterRegistry) {
+        this.expectedTokens = expectedTokens;
+        this.filter = new BloomFilter(expectedTokens, FALSE_POSITIVE_RATE);
+        Gauge.builder("jwt.revocations.active", revoked, Map::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    public void revoke(TokenDigest digest, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(digest, expiresAtMillis);
+        filter.add(digest);
+        BloomFilter pending = rebuilding;
+        if (pending != null) {
+            pending.add(digest);
+        }
+    }
+
+    public boolean isRevoked(TokenDigest digest) {
+        return filter.mightContain(digest) && revoked.containsKey(digest);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Drops expired entries and rebuilds the filter, since a Bloom filter cannot forget.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter next = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        rebuilding = next;
+        revoked.keySet().forEach(next::add);
+        filter = next;
+        // A revoke can miss the first pass yet add to the old filter and read rebuilding only
+        // after it is cleared; its entry is in the map before the swap, so a second pass finds it.
+        revoked.keySet().forEach(next::add);
+        rebuilding = null;
+
+        log.debug("Revocation index swept, {} live revoked tokens", revoked.size());
+    }
+
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (m + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = words * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void add(TokenDigest digest) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(digest, i);
+                long mask = 1L << index;
+                int word = (int) (index >>> 6);
+                if ((bits.get(word) & mask) == 0) {
+                    bits.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+                }
+            }
+        }
+
+        boolean mightContain(TokenDigest digest) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(digest, i);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(TokenDigest digest, int i) {
+            long combined = digest.high() + i * digest.low();
+            return (combined & Long.MAX_VALUE) % bitCount;
+        }
+    }
+}
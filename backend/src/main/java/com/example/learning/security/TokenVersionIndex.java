@@ -0,0 +1,78 @@
+package com.example.learning.security;
+
+import com.example.learning.event.UserAccountChangedEvent;
+import com.example.learning.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+
+/**
+ * Current token version per user, so an access token issued before a password change or
+ * account deletion stops working right away instead of at its expiry. Versions are loaded on
+ * first use and refreshed after every committed account change; the TTL bounds how long a
+ * change made on another instance goes unnoticed here.
+ */
+@Component
+public class TokenVersionIndex {
+
+    /**
+     * Stored for users that are deleted or gone, so no token of theirs is current.
+     */
+    private static final int NO_VALID_VERSION = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> versions;
+    private final Counter rejectedCounter;
+
+    public TokenVersionIndex(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${security.token-version-cache.max-size:100000}") long maxSize,
+                             @Value("${security.token-version-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "jwt.token-versions");
+        this.rejectedCounter = Counter.builder("jwt.rejected")
+                .tag("reason", "stale-version")
+                .description("Access tokens refused because the user's token version moved past them")
+                .register(meterRegistry);
+    }
+
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        int current = versions.get(userId, this::load);
+        if ((tokenVersion != null ? tokenVersion : 0) < current) {
+            rejectedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private int load(Long userId) {
+        return userRepository.findActiveTokenVersionById(userId).orElse(NO_VALID_VERSION);
+    }
+
+    /**
+     * Reads the committed version and merges it with max: a load racing with this listener
+     * completes first (it holds the entry), and versions only ever move up.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        int version = load(event.userId());
+        if (version == NO_VALID_VERSION) {
+            versions.put(event.userId(), version);
+        } else {
+            versions.asMap().merge(event.userId(), version,
+                    (cached, loaded) -> cached == NO_VALID_VERSION ? loaded : Math.max(cached, loaded));
+        }
+    }
+}
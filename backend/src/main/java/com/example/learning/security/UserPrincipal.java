@@ -0,0 +1,79 @@
+package com.example.learning.security;
+
+import com.example.learning.entity.User;
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Authenticated principal. Built from token claims on the request path,
+ * so no user lookup is needed to know who is calling.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final String role;
+    private final Integer tokenVersion;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public static UserPrincipal fromUser(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getRole(),
+                user.getTokenVersion(),
+                authoritiesFor(user.getRole())
+        );
+    }
+
+    public static UserPrincipal fromClaims(Claims claims) {
+        String role = claims.get(JwtProvider.CLAIM_ROLE, String.class);
+        return new UserPrincipal(
+                claims.get(JwtProvider.CLAIM_USER_ID, Long.class),
+                claims.getSubject(),
+                null,
+                role,
+                claims.get(JwtProvider.CLAIM_TOKEN_VERSION, Integer.class),
+                authoritiesFor(role)
+        );
+    }
+
+    private static Collection<? extends GrantedAuthority> authoritiesFor(String role) {
+        return Collections.singleton(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
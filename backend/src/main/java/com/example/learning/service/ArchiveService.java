@@ -0,0 +1,8 @@
+package com.example.learning.service;
+
+public interface ArchiveService {
+    void archiveExpired();
+    void restorePost(Long postId);
+    void restoreComment(Long commentId);
+    void restoreUser(Long userId);
+}
@@ -3,11 +3,16 @@ package com.example.learning.service;
 import com.example.learning.dto.request.CreateCommentRequest;
 import com.example.learning.dto.response.CommentResponse;
 import com.example.learning.dto.response.PageResponse;
+import com.example.learning.util.PageCursor;
+import com.example.learning.util.ResourceVersion;
 import org.springframework.data.domain.Pageable;
+import java.util.Optional;
 
 public interface CommentService {
     CommentResponse createComment(Long postId, Long userId, CreateCommentRequest request);
-    PageResponse<CommentResponse> getCommentsByPost(Long postId, Pageable pageable);
+    PageResponse<CommentResponse> getCommentsByPost(Long postId, Pageable pageable, boolean includeTotal);
+    PageResponse<CommentResponse> getCommentsByPost(Long postId, PageCursor cursor, int size);
+    Optional<ResourceVersion> getCommentsVersion(Long postId);
     CommentResponse updateComment(Long commentId, Long userId, CreateCommentRequest request);
     void deleteComment(Long commentId, Long userId);
 }
@@ -0,0 +1,18 @@
+package com.example.learning.service;
+
+import com.example.learning.dto.response.CommentResponse;
+import com.example.learning.dto.response.LikeResponse;
+import com.example.learning.dto.response.PostResponse;
+import com.example.learning.dto.response.PostSummaryResponse;
+import java.util.List;
+
+public interface LikeService {
+    LikeResponse likePost(Long postId, Long userId);
+    LikeResponse unlikePost(Long postId, Long userId);
+    LikeResponse likeComment(Long commentId, Long userId);
+    LikeResponse unlikeComment(Long commentId, Long userId);
+    PostResponse applyToPost(PostResponse post, Long viewerId);
+    List<PostResponse> applyToPosts(List<PostResponse> posts, Long viewerId);
+    void applyToSummaries(List<PostSummaryResponse> posts, Long viewerId);
+    void applyToComments(List<CommentResponse> comments, Long viewerId);
+}
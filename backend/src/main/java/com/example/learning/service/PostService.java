@@ -4,14 +4,20 @@ import com.example.learning.dto.request.CreatePostRequest;
 import com.example.learning.dto.request.UpdatePostRequest;
 import com.example.learning.dto.response.PageResponse;
 import com.example.learning.dto.response.PostResponse;
+import com.example.learning.dto.response.PostSummaryResponse;
+import com.example.learning.util.PageCursor;
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
+import java.util.List;
 
 public interface PostService {
     PostResponse createPost(Long userId, CreatePostRequest request);
-    PageResponse<PostResponse> getAllPosts(Pageable pageable);
+    PageResponse<PostSummaryResponse> getAllPosts(Pageable pageable, boolean includeTotal);
+    PageResponse<PostSummaryResponse> getAllPosts(PageCursor cursor, int size);
     PostResponse getPostById(Long postId);
+    List<PostResponse> getPostsByIds(Collection<Long> postIds);
     PostResponse updatePost(Long postId, Long userId, UpdatePostRequest request);
     void deletePost(Long postId, Long userId);
-    PageResponse<PostResponse> getPostsByUser(Long userId, Pageable pageable);
-    PageResponse<PostResponse> searchPosts(String query, Pageable pageable);
+    PageResponse<PostSummaryResponse> getPostsByUser(Long userId, Pageable pageable, boolean includeTotal);
+    PageResponse<PostSummaryResponse> searchPosts(String query, Pageable pageable, boolean includeTotal);
 }
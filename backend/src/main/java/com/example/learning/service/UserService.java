@@ -5,14 +5,19 @@ import com.example.learning.dto.request.UpdateUserRequest;
 import com.example.learning.dto.response.PageResponse;
 import com.example.learning.dto.response.UserResponse;
 import com.example.learning.dto.response.UserStatisticsResponse;
+import com.example.learning.util.PageCursor;
+import com.example.learning.util.ResourceVersion;
 import org.springframework.data.domain.Pageable;
+import java.util.Optional;
 
 public interface UserService {
-    PageResponse<UserResponse> getAllUsers(Pageable pageable);
+    PageResponse<UserResponse> getAllUsers(Pageable pageable, boolean includeTotal);
+    PageResponse<UserResponse> getAllUsers(PageCursor cursor, int size);
     UserResponse getUserById(Long userId);
+    Optional<ResourceVersion> getUserVersion(Long userId);
     UserResponse updateUser(Long userId, UpdateUserRequest request);
     void changePassword(Long userId, ChangePasswordRequest request);
-    PageResponse<UserResponse> searchUsers(String query, Pageable pageable);
+    PageResponse<UserResponse> searchUsers(String query, Pageable pageable, boolean includeTotal);
     UserResponse getCurrentUser(String email);
     void deleteUser(Long userId);
     UserStatisticsResponse getUserStatistics(Long userId);
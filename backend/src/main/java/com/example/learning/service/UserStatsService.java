@@ -0,0 +1,8 @@
+package com.example.learning.service;
+
+import java.util.Collection;
+
+public interface UserStatsService {
+    void recompute(Collection<Long> userIds);
+    void reconcile();
+}
@@ -0,0 +1,352 @@
+package com.example.learning.service.impl;
+
+import com.example.learning.event.CommentChangedEvent;
+import com.example.learning.event.PostChangedEvent;
+import com.example.learning.event.UserAccountChangedEvent;
+import com.example.learning.exception.ResourceNotFoundException;
+import com.example.learning.exception.RestoreConflictException;
+import com.example.learning.service.ArchiveService;
+import com.example.learning.service.UserStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves rows soft-deleted longer than the retention window into the *_archive tables, in small
+ * id-ordered batches with a pause in between so no transaction holds locks for long.
+ * Archived and soft-deleted rows can be restored through the admin API.
+ */
+@Service
+@Slf4j
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private static final String USER_COLUMNS = "id, username, email, password, first_name, last_name, phone, "
+            + "avatar, status, role, token_version, created_at, updated_at, deleted_at";
+    private static final String USER_ROLE_COLUMNS = "id, user_id, role, created_at";
+    private static final String POST_COLUMNS = "id, title, content, status, user_id, excerpt, word_count, "
+            + "reading_time_minutes, comment_count, like_count, created_at, updated_at, deleted_at";
+    private static final String COMMENT_COLUMNS = "id, content, post_id, user_id, like_count, created_at, updated_at, deleted_at";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.retention:P30D}")
+    private Duration retention;
+
+    @Value("${archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${archive.batch-pause-ms:100}")
+    private long batchPauseMs;
+
+    @Value("${archive.max-batches-per-run:500}")
+    private int maxBatchesPerRun;
+
+    private TransactionTemplate transaction;
+
+    private Timer runTimer;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        runTimer = Timer.builder("archive.run")
+                .description("Duration of a soft-delete archival run")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${archive.interval-ms:3600000}", initialDelayString = "${archive.initial-delay-ms:300000}")
+    public void archiveExpired() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        runTimer.record(() -> {
+            long comments = archiveBatches("comments", cutoff,
+                    "SELECT id FROM comments WHERE deleted_at < :cutoff AND id > :afterId ORDER BY id LIMIT :limit",
+                    this::archiveComments);
+            long posts = archiveBatches("posts", cutoff,
+                    "SELECT id FROM posts WHERE deleted_at < :cutoff AND id > :afterId ORDER BY id LIMIT :limit",
+                    this::archivePosts);
+            long users = archiveBatches("users", cutoff,
+                    "SELECT u.id FROM users u WHERE u.deleted_at < :cutoff AND u.id > :afterId "
+                            + "AND NOT EXISTS (SELECT 1 FROM posts p WHERE p.user_id = u.id) "
+                            + "AND NOT EXISTS (SELECT 1 FROM comments c WHERE c.user_id = u.id) "
+                            + "ORDER BY u.id LIMIT :limit",
+                    this::archiveUsers);
+            log.info("Archived {} comments, {} posts and {} users deleted before {}", comments, posts, users, cutoff);
+        });
+    }
+
+    private long archiveBatches(String table, LocalDateTime cutoff, String selectSql, BatchMover mover) {
+        Counter archived = rowCounter(table, "archived");
+        long total = 0;
+        long afterId = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> ids = jdbcTemplate.queryForList(selectSql, new MapSqlParameterSource()
+                    .addValue("cutoff", cutoff)
+                    .addValue("afterId", afterId)
+                    .addValue("limit", batchSize), Long.class);
+            if (ids.isEmpty()) {
+                break;
+            }
+            int moved = transaction.execute(status -> mover.move(ids, cutoff, LocalDateTime.now()));
+            archived.increment(moved);
+            total += moved;
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archiveComments(List<Long> candidates, LocalDateTime cutoff, LocalDateTime now) {
+        List<Long> ids = lockExpired("comments", candidates, cutoff);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("now", now);
+        jdbcTemplate.update("INSERT INTO comments_archive (" + COMMENT_COLUMNS + ", archived_at) "
+                + "SELECT " + COMMENT_COLUMNS + ", :now FROM comments WHERE id IN (:ids)", params);
+        return jdbcTemplate.update("DELETE FROM comments WHERE id IN (:ids)", params);
+    }
+
+    /**
+     * A post is archived together with all of its comments, deleted or not. Live comments still
+     * count for their authors, so those authors are recomputed once the comments are gone.
+     */
+    private int archivePosts(List<Long> candidates, LocalDateTime cutoff, LocalDateTime now) {
+        List<Long> ids = lockExpired("posts", candidates, cutoff);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("now", now);
+        List<Long> commenters = jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM comments "
+                + "WHERE post_id IN (:ids) AND deleted_at IS NULL", params, Long.class);
+        jdbcTemplate.update("INSERT INTO comments_archive (" + COMMENT_COLUMNS + ", archived_at) "
+                + "SELECT " + COMMENT_COLUMNS + ", :now FROM comments WHERE post_id IN (:ids)", params);
+        int comments = jdbcTemplate.update("DELETE FROM comments WHERE post_id IN (:ids)", params);
+        rowCounter("comments", "archived").increment(comments);
+        userStatsService.recompute(commenters);
+        jdbcTemplate.update("INSERT INTO posts_archive (" + POST_COLUMNS + ", archived_at) "
+                + "SELECT " + POST_COLUMNS + ", :now FROM posts WHERE id IN (:ids)", params);
+        return jdbcTemplate.update("DELETE FROM posts WHERE id IN (:ids)", params);
+    }
+
+    /**
+     * Users are archived only once none of their posts or comments remain in the live tables.
+     */
+    private int archiveUsers(List<Long> candidates, LocalDateTime cutoff, LocalDateTime now) {
+        List<Long> ids = lockExpired("users", candidates, cutoff);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("now", now);
+        String unreferenced = "id IN (:ids) "
+                + "AND NOT EXISTS (SELECT 1 FROM posts p WHERE p.user_id = users.id) "
+                + "AND NOT EXISTS (SELECT 1 FROM comments c WHERE c.user_id = users.id)";
+        List<Long> archivable = jdbcTemplate.queryForList("SELECT id FROM users WHERE " + unreferenced, params, Long.class);
+        if (archivable.isEmpty()) {
+            return 0;
+        }
+        params.addValue("ids", archivable);
+        jdbcTemplate.update("INSERT INTO user_roles_archive (" + USER_ROLE_COLUMNS + ", archived_at) "
+                + "SELECT " + USER_ROLE_COLUMNS + ", :now FROM user_roles WHERE user_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id IN (:ids)", params);
+        jdbcTemplate.update("INSERT INTO users_archive (" + USER_COLUMNS + ", archived_at) "
+                + "SELECT " + USER_COLUMNS + ", :now FROM users WHERE id IN (:ids)", params);
+        return jdbcTemplate.update("DELETE FROM users WHERE id IN (:ids)", params);
+    }
+
+    /**
+     * Re-reads the candidates under a row lock so a row restored since it was selected is left alone.
+     */
+    private List<Long> lockExpired(String table, List<Long> candidates, LocalDateTime cutoff) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table
+                        + " WHERE id IN (:ids) AND deleted_at < :cutoff FOR UPDATE",
+                new MapSqlParameterSource("ids", candidates).addValue("cutoff", cutoff), Long.class);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void restorePost(Long postId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", postId).addValue("now", LocalDateTime.now());
+        Map<String, Object> live = queryForRow("SELECT status, deleted_at FROM posts WHERE id = :id FOR UPDATE", params);
+        String status;
+
+        if (live != null) {
+            if (live.get("deleted_at") == null) {
+                throw new RestoreConflictException("Post " + postId + " is not deleted");
+            }
+            status = (String) live.get("status");
+        } else {
+            Map<String, Object> archived = queryForRow("SELECT status, user_id FROM posts_archive WHERE id = :id", params);
+            if (archived == null) {
+                throw new ResourceNotFoundException("Post", "id", postId);
+            }
+            if (!exists("users", ((Number) archived.get("user_id")).longValue())) {
+                throw new RestoreConflictException("The author of post " + postId + " is archived, restore the user first");
+            }
+            status = (String) archived.get("status");
+
+            jdbcTemplate.update("INSERT INTO posts (" + POST_COLUMNS + ") "
+                    + "SELECT " + POST_COLUMNS + " FROM posts_archive WHERE id = :id", params);
+            jdbcTemplate.update("DELETE FROM posts_archive WHERE id = :id", params);
+            int comments = jdbcTemplate.update("INSERT INTO comments (" + COMMENT_COLUMNS + ") "
+                    + "SELECT " + COMMENT_COLUMNS + " FROM comments_archive a WHERE a.post_id = :id "
+                    + "AND EXISTS (SELECT 1 FROM users u WHERE u.id = a.user_id)", params);
+            jdbcTemplate.update("DELETE FROM comments_archive WHERE post_id = :id "
+                    + "AND id IN (SELECT id FROM comments WHERE post_id = :id)", params);
+            rowCounter("comments", "restored").increment(comments);
+        }
+
+        jdbcTemplate.update("UPDATE posts SET deleted_at = NULL, updated_at = :now, comment_count = "
+                + "(SELECT COUNT(*) FROM comments c WHERE c.post_id = :id AND c.deleted_at IS NULL) WHERE id = :id", params);
+        // The post and any comments restored with it move several users' counts at once.
+        userStatsService.recompute(jdbcTemplate.queryForList("SELECT user_id FROM posts WHERE id = :id "
+                + "UNION SELECT user_id FROM comments WHERE post_id = :id", params, Long.class));
+        rowCounter("posts", "restored").increment();
+        eventPublisher.publishEvent(new PostChangedEvent(postId, "PUBLISHED".equals(status)));
+        log.info("Restored post {}", postId);
+    }
+
+    @Override
+    @Transactional
+    public void restoreComment(Long commentId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", commentId).addValue("now", LocalDateTime.now());
+        Map<String, Object> live = queryForRow("SELECT post_id, deleted_at FROM comments WHERE id = :id FOR UPDATE", params);
+        long postId;
+
+        if (live != null) {
+            if (live.get("deleted_at") == null) {
+                throw new RestoreConflictException("Comment " + commentId + " is not deleted");
+            }
+            postId = ((Number) live.get("post_id")).longValue();
+        } else {
+            Map<String, Object> archived = queryForRow("SELECT post_id, user_id FROM comments_archive WHERE id = :id", params);
+            if (archived == null) {
+                throw new ResourceNotFoundException("Comment", "id", commentId);
+            }
+            postId = ((Number) archived.get("post_id")).longValue();
+            if (!exists("posts", postId)) {
+                throw new RestoreConflictException("The post of comment " + commentId + " is archived, restore the post first");
+            }
+            if (!exists("users", ((Number) archived.get("user_id")).longValue())) {
+                throw new RestoreConflictException("The author of comment " + commentId + " is archived, restore the user first");
+            }
+            jdbcTemplate.update("INSERT INTO comments (" + COMMENT_COLUMNS + ") "
+                    + "SELECT " + COMMENT_COLUMNS + " FROM comments_archive WHERE id = :id", params);
+            jdbcTemplate.update("DELETE FROM comments_archive WHERE id = :id", params);
+        }
+
+        jdbcTemplate.update("UPDATE comments SET deleted_at = NULL, updated_at = :now WHERE id = :id", params);
+        jdbcTemplate.update("UPDATE posts SET comment_count = comment_count + 1 WHERE id = :postId",
+                new MapSqlParameterSource("postId", postId));
+        userStatsService.recompute(jdbcTemplate.queryForList("SELECT user_id FROM comments WHERE id = :id",
+                params, Long.class));
+        rowCounter("comments", "restored").increment();
+        eventPublisher.publishEvent(new CommentChangedEvent(commentId, postId));
+        log.info("Restored comment {}", commentId);
+    }
+
+    @Override
+    @Transactional
+    public void restoreUser(Long userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", userId).addValue("now", LocalDateTime.now());
+        Map<String, Object> live = queryForRow("SELECT email, deleted_at FROM users WHERE id = :id FOR UPDATE", params);
+        String email;
+
+        if (live != null) {
+            if (live.get("deleted_at") == null) {
+                throw new RestoreConflictException("User " + userId + " is not deleted");
+            }
+            email = (String) live.get("email");
+        } else {
+            Map<String, Object> archived = queryForRow("SELECT email, username FROM users_archive WHERE id = :id", params);
+            if (archived == null) {
+                throw new ResourceNotFoundException("User", "id", userId);
+            }
+            email = (String) archived.get("email");
+            Integer taken = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = :email OR username = :username",
+                    new MapSqlParameterSource("email", email).addValue("username", archived.get("username")), Integer.class);
+            if (taken != null && taken > 0) {
+                throw new RestoreConflictException("The email or username of user " + userId + " is now in use");
+            }
+            jdbcTemplate.update("INSERT INTO users (" + USER_COLUMNS + ") "
+                    + "SELECT " + USER_COLUMNS + " FROM users_archive WHERE id = :id", params);
+            jdbcTemplate.update("INSERT INTO user_roles (" + USER_ROLE_COLUMNS + ") "
+                    + "SELECT " + USER_ROLE_COLUMNS + " FROM user_roles_archive WHERE user_id = :id", params);
+            jdbcTemplate.update("DELETE FROM user_roles_archive WHERE user_id = :id", params);
+            jdbcTemplate.update("DELETE FROM users_archive WHERE id = :id", params);
+        }
+
+        jdbcTemplate.update("UPDATE users SET deleted_at = NULL, updated_at = :now WHERE id = :id", params);
+        rowCounter("users", "restored").increment();
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId, email));
+        log.info("Restored user {}", userId);
+    }
+
+    private Map<String, Object> queryForRow(String sql, MapSqlParameterSource params) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, params);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private boolean exists(String table, long id) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM " + table + " WHERE id = :id",
+                new MapSqlParameterSource("id", id), Integer.class).isEmpty();
+    }
+
+    private Counter rowCounter(String table, String operation) {
+        return Counter.builder("archive.rows")
+                .tag("table", table)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface BatchMover {
+        int move(List<Long> candidates, LocalDateTime cutoff, LocalDateTime now);
+    }
+}
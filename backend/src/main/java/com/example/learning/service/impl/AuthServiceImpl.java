@@ -6,17 +6,22 @@ import com.example.learning.dto.response.AuthResponse;
 import com.example.learning.dto.response.TokenResponse;
 import com.example.learning.dto.response.UserResponse;
 import com.example.learning.entity.User;
+import com.example.learning.event.UserRegisteredEvent;
 import com.example.learning.exception.DuplicateEmailException;
 import com.example.learning.exception.InvalidTokenException;
 import com.example.learning.exception.UnauthorizedException;
 import com.example.learning.repository.UserRepository;
+import com.example.learning.repository.UserStatsRepository;
 import com.example.learning.security.JwtProvider;
+import com.example.learning.security.PasswordHashingService;
 import com.example.learning.service.AuthService;
+import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 
 @Service
 @Slf4j
@@ -27,11 +32,17 @@ public class AuthServiceImpl implements AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtProvider jwtProvider;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -45,7 +56,7 @@ public class AuthServiceImpl implements AuthService {
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .phone(request.getPhone())
@@ -53,9 +64,11 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        userStatsRepository.adjust(savedUser.getId(), 0, 0, 0);
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getId()));
         
-        String token = jwtProvider.generateToken(savedUser.getEmail());
-        String refreshToken = jwtProvider.generateRefreshToken(savedUser.getEmail());
+        String token = jwtProvider.generateToken(savedUser);
+        String refreshToken = jwtProvider.generateRefreshToken(savedUser);
 
         return AuthResponse.builder()
                 .token(token)
@@ -70,12 +83,19 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UnauthorizedException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new UnauthorizedException("Invalid email or password");
         }
 
-        String token = jwtProvider.generateToken(user.getEmail());
-        String refreshToken = jwtProvider.generateRefreshToken(user.getEmail());
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
+            userRepository.save(user);
+            log.debug("Rehashed password for user: {}", user.getId());
+        }
+        userStatsRepository.recordLogin(user.getId(), LocalDateTime.now());
+
+        String token = jwtProvider.generateToken(user);
+        String refreshToken = jwtProvider.generateRefreshToken(user);
 
         return AuthResponse.builder()
                 .token(token)
@@ -87,12 +107,19 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public TokenResponse refreshToken(String refreshToken) {
-        if (!jwtProvider.validateToken(refreshToken)) {
-            throw new InvalidTokenException("Invalid or expired refresh token");
+        Claims claims = jwtProvider.verifyToken(refreshToken)
+                .orElseThrow(() -> new InvalidTokenException("Invalid or expired refresh token"));
+
+        User user = userRepository.findByEmail(claims.getSubject())
+                .filter(u -> u.getDeletedAt() == null)
+                .orElseThrow(() -> new InvalidTokenException("Invalid or expired refresh token"));
+
+        Integer tokenVersion = claims.get(JwtProvider.CLAIM_TOKEN_VERSION, Integer.class);
+        if (!user.getTokenVersion().equals(tokenVersion)) {
+            throw new InvalidTokenException("Refresh token has been revoked");
         }
 
-        String email = jwtProvider.getEmailFromToken(refreshToken);
-        String newToken = jwtProvider.generateToken(email);
+        String newToken = jwtProvider.generateToken(user);
 
         return TokenResponse.builder()
                 .token(newToken)
@@ -102,8 +129,12 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public void logout(String token) {
-        // You can implement token blacklist here if needed
-        log.info("User logged out");
+        String jwt = token != null && token.startsWith("Bearer ") ? token.substring(7) : token;
+        if (jwtProvider.revokeToken(jwt)) {
+            log.info("User logged out");
+        } else {
+            log.info("Logout with invalid or already revoked token");
+        }
     }
 
     private UserResponse mapToUserResponse(User user) {
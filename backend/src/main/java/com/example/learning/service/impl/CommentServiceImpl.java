@@ -1,5 +1,6 @@
 package com.example.learning.service.impl;
 
+import com.example.learning.cache.CountCache;
 import com.example.learning.dto.request.CreateCommentRequest;
 import com.example.learning.dto.response.CommentResponse;
 import com.example.learning.dto.response.PageResponse;
@@ -7,19 +8,33 @@ import com.example.learning.dto.response.UserResponse;
 import com.example.learning.entity.Comment;
 import com.example.learning.entity.Post;
 import com.example.learning.entity.User;
+import com.example.learning.event.CommentChangedEvent;
 import com.example.learning.exception.ResourceNotFoundException;
 import com.example.learning.exception.UnauthorizedException;
+import com.example.learning.ingest.CommentWriteQueue;
 import com.example.learning.repository.CommentRepository;
 import com.example.learning.repository.PostRepository;
 import com.example.learning.repository.UserRepository;
+import com.example.learning.repository.UserStatsRepository;
+import com.example.learning.repository.projection.ListVersionRow;
 import com.example.learning.service.CommentService;
+import com.example.learning.util.PageCursor;
+import com.example.learning.util.PaginationUtils;
+import com.example.learning.util.ResourceVersion;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -35,8 +50,52 @@ public class CommentServiceImpl implements CommentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CommentWriteQueue commentWriteQueue;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Runs outside the class-level transaction: in write-behind mode the caller waits for the
+     * group commit and must not hold a connection meanwhile.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CommentResponse createComment(Long postId, Long userId, CreateCommentRequest request) {
+        if (commentWriteQueue.isEnabled()) {
+            return queueComment(postId, userId, request);
+        }
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> insertComment(postId, userId, request));
+    }
+
+    private CommentResponse queueComment(Long postId, Long userId, CreateCommentRequest request) {
+        if (!postRepository.existsActiveById(postId)) {
+            throw new ResourceNotFoundException("Post", "id", postId);
+        }
+        User author = userRepository.findByIdActive(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+        CommentWriteQueue.StoredComment stored = commentWriteQueue.write(postId, userId, request.getContent());
+        return CommentResponse.builder()
+                .id(stored.id())
+                .content(request.getContent())
+                .author(mapToAuthorResponse(author))
+                .postId(postId)
+                .likeCount(0)
+                .createdAt(stored.createdAt())
+                .updatedAt(stored.createdAt())
+                .build();
+    }
+
+    private CommentResponse insertComment(Long postId, Long userId, CreateCommentRequest request) {
         Post post = postRepository.findByIdActive(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
 
@@ -50,17 +109,49 @@ public class CommentServiceImpl implements CommentService {
                 .build();
 
         Comment savedComment = commentRepository.save(comment);
+        postRepository.adjustCommentCount(postId, 1);
+        userStatsRepository.adjust(userId, 0, 1, 0);
+        eventPublisher.publishEvent(new CommentChangedEvent(savedComment.getId(), postId));
         return mapToCommentResponse(savedComment);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PageResponse<CommentResponse> getCommentsByPost(Long postId, Pageable pageable) {
+    public PageResponse<CommentResponse> getCommentsByPost(Long postId, Pageable pageable, boolean includeTotal) {
+        Post post = postRepository.findByIdActive(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
+
+        Slice<Comment> comments = commentRepository.findByPostId(postId, pageable);
+        // posts.comment_count is kept exact by every comment write, so no COUNT is needed.
+        CountCache.CountResult total = includeTotal
+                ? new CountCache.CountResult(post.getCommentCount(), false)
+                : null;
+        return mapToPageResponse(comments, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<CommentResponse> getCommentsByPost(Long postId, PageCursor cursor, int size) {
         postRepository.findByIdActive(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
 
-        Page<Comment> comments = commentRepository.findByPostId(postId, pageable);
-        return mapToPageResponse(comments);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Comment> comments = cursor == null
+                ? commentRepository.findByPostIdLatest(postId, limit)
+                : commentRepository.findByPostIdBefore(postId, cursor.createdAt(), cursor.id(), limit);
+        return PaginationUtils.keysetPage(comments, size, cursor != null, this::mapToCommentResponse,
+                comment -> PageCursor.of(comment.getCreatedAt(), comment.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getCommentsVersion(Long postId) {
+        ListVersionRow version = commentRepository.findVersionByPostId(postId);
+        if (version.count() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(ResourceVersion.of("comments-" + postId + "-" + version.likes(),
+                version.lastModified(), version.count()));
     }
 
     @Override
@@ -74,6 +165,7 @@ public class CommentServiceImpl implements CommentService {
 
         comment.setContent(request.getContent());
         Comment updatedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentChangedEvent(commentId, comment.getPost().getId()));
         return mapToCommentResponse(updatedComment);
     }
 
@@ -88,37 +180,49 @@ public class CommentServiceImpl implements CommentService {
 
         comment.setDeletedAt(LocalDateTime.now());
         commentRepository.save(comment);
+        postRepository.adjustCommentCount(comment.getPost().getId(), -1);
+        userStatsRepository.subtractComment(commentId);
+        eventPublisher.publishEvent(new CommentChangedEvent(commentId, comment.getPost().getId()));
     }
 
-    private CommentResponse mapToCommentResponse(Comment comment) {
-        UserResponse authorResponse = UserResponse.builder()
-                .id(comment.getAuthor().getId())
-                .username(comment.getAuthor().getUsername())
-                .email(comment.getAuthor().getEmail())
-                .avatar(comment.getAuthor().getAvatar())
+    private UserResponse mapToAuthorResponse(User author) {
+        return UserResponse.builder()
+                .id(author.getId())
+                .username(author.getUsername())
+                .email(author.getEmail())
+                .avatar(author.getAvatar())
                 .build();
+    }
 
+    private CommentResponse mapToCommentResponse(Comment comment) {
         return CommentResponse.builder()
                 .id(comment.getId())
                 .content(comment.getContent())
-                .author(authorResponse)
+                .author(mapToAuthorResponse(comment.getAuthor()))
                 .postId(comment.getPost().getId())
+                .likeCount(comment.getLikeCount())
                 .createdAt(comment.getCreatedAt())
                 .updatedAt(comment.getUpdatedAt())
                 .build();
     }
 
-    private PageResponse<CommentResponse> mapToPageResponse(Page<Comment> page) {
+    private PageResponse<CommentResponse> mapToPageResponse(Slice<Comment> page, CountCache.CountResult total) {
+        Comment last = page.hasNext() && PageCursor.supports(page.getSort())
+                ? page.getContent().get(page.getNumberOfElements() - 1)
+                : null;
+
         return PageResponse.<CommentResponse>builder()
                 .content(page.getContent().stream()
                         .map(this::mapToCommentResponse)
                         .toList())
                 .page(page.getNumber())
                 .size(page.getSize())
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
+                .totalElements(total != null ? total.total() : null)
+                .totalPages(total != null ? (int) Math.ceil((double) total.total() / page.getSize()) : null)
+                .approximateTotal(total != null ? total.approximate() : null)
                 .hasNext(page.hasNext())
                 .hasPrevious(page.hasPrevious())
+                .nextCursor(last != null ? PageCursor.of(last.getCreatedAt(), last.getId()).encode() : null)
                 .build();
     }
 }
@@ -0,0 +1,192 @@
+package com.example.learning.service.impl;
+
+import com.example.learning.cache.LikeIndex;
+import com.example.learning.dto.response.CommentResponse;
+import com.example.learning.dto.response.LikeResponse;
+import com.example.learning.dto.response.PostResponse;
+import com.example.learning.dto.response.PostSummaryResponse;
+import com.example.learning.entity.LikeTarget;
+import com.example.learning.event.LikeChangedEvent;
+import com.example.learning.exception.ResourceNotFoundException;
+import com.example.learning.repository.CommentRepository;
+import com.example.learning.repository.PostRepository;
+import com.example.learning.repository.UserStatsRepository;
+import com.example.learning.service.LikeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Likes are rows keyed by (target, user). Like and unlike are plain INSERT IGNORE and DELETE
+ * statements, so a double click is a no-op and like_count only moves when a row did.
+ * The apply methods fill in counts and "liked by me" from {@link LikeIndex}; they run without
+ * a transaction because hot items need no query.
+ */
+@Service
+@Slf4j
+public class LikeServiceImpl implements LikeService {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private LikeIndex likeIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public LikeResponse likePost(Long postId, Long userId) {
+        return setPostLike(postId, userId, true);
+    }
+
+    @Override
+    @Transactional
+    public LikeResponse unlikePost(Long postId, Long userId) {
+        return setPostLike(postId, userId, false);
+    }
+
+    @Override
+    @Transactional
+    public LikeResponse likeComment(Long commentId, Long userId) {
+        return setCommentLike(commentId, userId, true);
+    }
+
+    @Override
+    @Transactional
+    public LikeResponse unlikeComment(Long commentId, Long userId) {
+        return setCommentLike(commentId, userId, false);
+    }
+
+    private LikeResponse setPostLike(Long postId, Long userId, boolean liked) {
+        Long authorId = postRepository.findActiveAuthorIdById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
+        if (setLike(LikeTarget.POST, postId, userId, liked)) {
+            postRepository.adjustLikeCount(postId, liked ? 1 : -1);
+            userStatsRepository.adjust(authorId, 0, 0, liked ? 1 : -1);
+        }
+        return LikeResponse.builder()
+                .targetId(postId)
+                .likeCount(postRepository.findLikeCountById(postId))
+                .likedByMe(liked)
+                .build();
+    }
+
+    private LikeResponse setCommentLike(Long commentId, Long userId, boolean liked) {
+        Long authorId = commentRepository.findActiveAuthorIdById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
+        if (setLike(LikeTarget.COMMENT, commentId, userId, liked)) {
+            commentRepository.adjustLikeCount(commentId, liked ? 1 : -1);
+            userStatsRepository.adjust(authorId, 0, 0, liked ? 1 : -1);
+        }
+        return LikeResponse.builder()
+                .targetId(commentId)
+                .likeCount(commentRepository.findLikeCountById(commentId))
+                .likedByMe(liked)
+                .build();
+    }
+
+    /**
+     * @return true when a like row was inserted or deleted
+     */
+    private boolean setLike(LikeTarget target, Long targetId, Long userId, boolean liked) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("targetId", targetId)
+                .addValue("userId", userId)
+                .addValue("createdAt", LocalDateTime.now());
+        int changed = liked
+                ? jdbcTemplate.update("INSERT IGNORE INTO " + target.table() + " (" + target.column()
+                        + ", user_id, created_at) VALUES (:targetId, :userId, :createdAt)", params)
+                : jdbcTemplate.update("DELETE FROM " + target.table() + " WHERE " + target.column()
+                        + " = :targetId AND user_id = :userId", params);
+        if (changed == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new LikeChangedEvent(target, targetId, userId, liked));
+        return true;
+    }
+
+    /**
+     * Always answers from the bitmap, loading it if cold: a post page is where likes are toggled.
+     */
+    @Override
+    public PostResponse applyToPost(PostResponse post, Long viewerId) {
+        LikeIndex.LikeSet likes = likeIndex.load(LikeTarget.POST, List.of(post.getId())).get(post.getId());
+        return post.toBuilder()
+                .likeCount((int) likes.count())
+                .likedByMe(viewerId != null ? likes.contains(viewerId) : null)
+                .build();
+    }
+
+    @Override
+    public List<PostResponse> applyToPosts(List<PostResponse> posts, Long viewerId) {
+        Map<Long, LikeIndex.LikeSet> likes = likeSets(LikeTarget.POST,
+                posts.stream().map(PostResponse::getId).toList(), viewerId);
+        return posts.stream()
+                .map(post -> {
+                    LikeIndex.LikeSet set = likes.get(post.getId());
+                    if (set == null) {
+                        return post;
+                    }
+                    return post.toBuilder()
+                            .likeCount((int) set.count())
+                            .likedByMe(viewerId != null ? set.contains(viewerId) : null)
+                            .build();
+                })
+                .toList();
+    }
+
+    @Override
+    public void applyToSummaries(List<PostSummaryResponse> posts, Long viewerId) {
+        Map<Long, LikeIndex.LikeSet> likes = likeSets(LikeTarget.POST,
+                posts.stream().map(PostSummaryResponse::getId).toList(), viewerId);
+        for (PostSummaryResponse post : posts) {
+            LikeIndex.LikeSet set = likes.get(post.getId());
+            if (set != null) {
+                post.setLikeCount((int) set.count());
+                post.setLikedByMe(viewerId != null ? set.contains(viewerId) : null);
+            }
+        }
+    }
+
+    @Override
+    public void applyToComments(List<CommentResponse> comments, Long viewerId) {
+        Map<Long, LikeIndex.LikeSet> likes = likeSets(LikeTarget.COMMENT,
+                comments.stream().map(CommentResponse::getId).toList(), viewerId);
+        for (CommentResponse comment : comments) {
+            LikeIndex.LikeSet set = likes.get(comment.getId());
+            if (set != null) {
+                comment.setLikeCount((int) set.count());
+                comment.setLikedByMe(viewerId != null ? set.contains(viewerId) : null);
+            }
+        }
+    }
+
+    /**
+     * Anonymous readers only get bitmaps that are already hot; the rest keep the like_count
+     * read with the page. A signed-in reader needs membership, so cold bitmaps are loaded.
+     */
+    private Map<Long, LikeIndex.LikeSet> likeSets(LikeTarget target, List<Long> ids, Long viewerId) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return viewerId != null ? likeIndex.load(target, ids) : likeIndex.cached(target, ids);
+    }
+}
@@ -1,25 +1,47 @@
 package com.example.learning.service.impl;
 
+import com.example.learning.cache.CountCache;
 import com.example.learning.dto.request.CreatePostRequest;
 import com.example.learning.dto.request.UpdatePostRequest;
 import com.example.learning.dto.response.PageResponse;
 import com.example.learning.dto.response.PostResponse;
+import com.example.learning.dto.response.PostSummaryResponse;
 import com.example.learning.dto.response.UserResponse;
 import com.example.learning.entity.Post;
 import com.example.learning.entity.User;
+import com.example.learning.event.PostChangedEvent;
 import com.example.learning.exception.ResourceNotFoundException;
 import com.example.learning.exception.UnauthorizedException;
-import com.example.learning.repository.CommentRepository;
 import com.example.learning.repository.PostRepository;
 import com.example.learning.repository.UserRepository;
+import com.example.learning.repository.UserStatsRepository;
+import com.example.learning.repository.projection.PostSummaryRow;
+import com.example.learning.search.PostSearchIndex;
 import com.example.learning.service.PostService;
+import com.example.learning.util.PageCursor;
+import com.example.learning.util.PaginationUtils;
+import com.example.learning.util.PostContentUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -33,7 +55,28 @@ public class PostServiceImpl implements PostService {
     private UserRepository userRepository;
 
     @Autowired
-    private CommentRepository commentRepository;
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${posts.recount-comments-on-startup:false}")
+    private boolean recountCommentsOnStartup;
+
+    @Value("${posts.backfill-summaries-on-startup:false}")
+    private boolean backfillSummariesOnStartup;
+
+    @Value("${posts.backfill-summaries.batch-size:500}")
+    private int backfillBatchSize;
 
     @Override
     public PostResponse createPost(Long userId, CreatePostRequest request) {
@@ -46,16 +89,33 @@ public class PostServiceImpl implements PostService {
                 .status(Post.PostStatus.valueOf(request.getStatus()))
                 .author(author)
                 .build();
+        applySummary(post);
 
         Post savedPost = postRepository.save(post);
+        userStatsRepository.adjust(userId, 1, 0, 0);
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), isPublished(savedPost)));
         return mapToPostResponse(savedPost);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PageResponse<PostResponse> getAllPosts(Pageable pageable) {
-        Page<Post> posts = postRepository.findAllPublished(pageable);
-        return mapToPageResponse(posts);
+    public PageResponse<PostSummaryResponse> getAllPosts(Pageable pageable, boolean includeTotal) {
+        Slice<PostSummaryRow> posts = postRepository.findAllPublished(pageable);
+        CountCache.CountResult total = includeTotal
+                ? countCache.count("posts.published", postRepository::countPublished)
+                : null;
+        return mapToPageResponse(posts, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<PostSummaryResponse> getAllPosts(PageCursor cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<PostSummaryRow> posts = cursor == null
+                ? postRepository.findPublishedLatest(limit)
+                : postRepository.findPublishedBefore(cursor.createdAt(), cursor.id(), limit);
+        return PaginationUtils.keysetPage(posts, size, cursor != null, this::mapToSummaryResponse,
+                row -> PageCursor.of(row.createdAt(), row.id()));
     }
 
     @Override
@@ -66,6 +126,14 @@ public class PostServiceImpl implements PostService {
         return mapToPostResponse(post);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostResponse> getPostsByIds(Collection<Long> postIds) {
+        return postRepository.findAllByIdActive(postIds).stream()
+                .map(this::mapToPostResponse)
+                .toList();
+    }
+
     @Override
     public PostResponse updatePost(Long postId, Long userId, UpdatePostRequest request) {
         Post post = postRepository.findByIdActive(postId)
@@ -75,17 +143,21 @@ public class PostServiceImpl implements PostService {
             throw new UnauthorizedException("You are not authorized to update this post");
         }
 
+        boolean wasPublished = isPublished(post);
+
         if (request.getTitle() != null) {
             post.setTitle(request.getTitle());
         }
         if (request.getContent() != null) {
             post.setContent(request.getContent());
+            applySummary(post);
         }
         if (request.getStatus() != null) {
             post.setStatus(Post.PostStatus.valueOf(request.getStatus()));
         }
 
         Post updatedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(postId, wasPublished || isPublished(updatedPost)));
         return mapToPostResponse(updatedPost);
     }
 
@@ -100,33 +172,123 @@ public class PostServiceImpl implements PostService {
 
         post.setDeletedAt(LocalDateTime.now());
         postRepository.save(post);
+        userStatsRepository.subtractPost(postId);
+        eventPublisher.publishEvent(new PostChangedEvent(postId, isPublished(post)));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PageResponse<PostResponse> getPostsByUser(Long userId, Pageable pageable) {
+    public PageResponse<PostSummaryResponse> getPostsByUser(Long userId, Pageable pageable, boolean includeTotal) {
         userRepository.findByIdActive(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
-        Page<Post> posts = postRepository.findByAuthorId(userId, pageable);
-        return mapToPageResponse(posts);
+        Slice<PostSummaryRow> posts = postRepository.findByAuthorId(userId, pageable);
+        CountCache.CountResult total = includeTotal
+                ? countCache.count("posts.author:" + userId, () -> postRepository.countByAuthorId(userId))
+                : null;
+        return mapToPageResponse(posts, total);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PageResponse<PostResponse> searchPosts(String query, Pageable pageable) {
-        Page<Post> posts = postRepository.searchPosts(query, pageable);
-        return mapToPageResponse(posts);
+    public PageResponse<PostSummaryResponse> searchPosts(String query, Pageable pageable, boolean includeTotal) {
+        if (postSearchIndex.isReady()) {
+            return searchIndex(query, pageable, includeTotal);
+        }
+
+        Slice<PostSummaryRow> posts = postRepository.searchPosts(query, pageable);
+        CountCache.CountResult total = includeTotal
+                ? countCache.count("posts.search:" + query.toLowerCase(), () -> postRepository.countSearchPosts(query))
+                : null;
+        return mapToPageResponse(posts, total);
+    }
+
+    /**
+     * Ranks matches with the full-text index, then loads summaries for just the ids on the page.
+     */
+    private PageResponse<PostSummaryResponse> searchIndex(String query, Pageable pageable, boolean includeTotal) {
+        int size = pageable.getPageSize();
+        PostSearchIndex.SearchHits hits = postSearchIndex.search(query, (int) pageable.getOffset(), size + 1);
+        boolean hasNext = hits.ids().size() > size;
+        List<Long> ids = hasNext ? hits.ids().subList(0, size) : hits.ids();
+
+        Map<Long, PostSummaryRow> rows = ids.isEmpty()
+                ? Map.of()
+                : postRepository.findSummariesByIds(ids).stream()
+                        .collect(Collectors.toMap(PostSummaryRow::id, Function.identity()));
+
+        return PageResponse.<PostSummaryResponse>builder()
+                .content(ids.stream()
+                        .map(rows::get)
+                        .filter(Objects::nonNull)
+                        .map(this::mapToSummaryResponse)
+                        .toList())
+                .page(pageable.getPageNumber())
+                .size(size)
+                .totalElements(includeTotal ? hits.totalHits() : null)
+                .totalPages(includeTotal ? (int) Math.ceil((double) hits.totalHits() / size) : null)
+                .approximateTotal(includeTotal ? hits.approximate() : null)
+                .hasNext(hasNext)
+                .hasPrevious(pageable.hasPrevious())
+                .build();
+    }
+
+    /**
+     * One-off backfill of posts.comment_count for databases created before the column existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recountCommentsOnStartup() {
+        if (recountCommentsOnStartup) {
+            int updated = postRepository.recountCommentCounts();
+            log.info("Recounted comments for {} posts", updated);
+        }
+    }
+
+    /**
+     * Fills excerpt, word count and reading time for posts that lack them, one short transaction
+     * per batch. V2 already fills the rows that existed when it added the columns, so this only
+     * repairs rows written outside the application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillSummariesOnStartup() {
+        if (!backfillSummariesOnStartup) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Pageable batch = PageRequest.of(0, backfillBatchSize);
+        int total = 0;
+        int updated;
+        do {
+            updated = transaction.execute(status -> {
+                List<Post> posts = postRepository.findMissingSummary(batch);
+                posts.forEach(this::applySummary);
+                postRepository.saveAll(posts);
+                return posts.size();
+            });
+            total += updated;
+        } while (updated == backfillBatchSize);
+        log.info("Backfilled summaries for {} posts", total);
+    }
+
+    private boolean isPublished(Post post) {
+        return post.getStatus() == Post.PostStatus.PUBLISHED;
+    }
+
+    private void applySummary(Post post) {
+        int words = PostContentUtils.wordCount(post.getContent());
+        post.setExcerpt(PostContentUtils.excerpt(post.getContent()));
+        post.setWordCount(words);
+        post.setReadingTimeMinutes(PostContentUtils.readingTimeMinutes(words));
     }
 
     private PostResponse mapToPostResponse(Post post) {
-        Integer commentCount = commentRepository.countByPostId(post.getId());
-        
         UserResponse authorResponse = UserResponse.builder()
                 .id(post.getAuthor().getId())
                 .username(post.getAuthor().getUsername())
                 .email(post.getAuthor().getEmail())
                 .avatar(post.getAuthor().getAvatar())
+                .updatedAt(post.getAuthor().getUpdatedAt())
                 .build();
 
         return PostResponse.builder()
@@ -135,23 +297,52 @@ public class PostServiceImpl implements PostService {
                 .content(post.getContent())
                 .status(post.getStatus().toString())
                 .author(authorResponse)
-                .commentCount(commentCount != null ? commentCount : 0)
+                .commentCount(post.getCommentCount())
+                .likeCount(post.getLikeCount())
                 .createdAt(post.getCreatedAt())
                 .updatedAt(post.getUpdatedAt())
                 .build();
     }
 
-    private PageResponse<PostResponse> mapToPageResponse(Page<Post> page) {
-        return PageResponse.<PostResponse>builder()
+    private PostSummaryResponse mapToSummaryResponse(PostSummaryRow row) {
+        UserResponse authorResponse = UserResponse.builder()
+                .id(row.authorId())
+                .username(row.authorUsername())
+                .avatar(row.authorAvatar())
+                .build();
+
+        return PostSummaryResponse.builder()
+                .id(row.id())
+                .title(row.title())
+                .excerpt(row.excerpt())
+                .status(row.status().toString())
+                .author(authorResponse)
+                .commentCount(row.commentCount())
+                .likeCount(row.likeCount())
+                .wordCount(row.wordCount())
+                .readingTimeMinutes(row.readingTimeMinutes())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .build();
+    }
+
+    private PageResponse<PostSummaryResponse> mapToPageResponse(Slice<PostSummaryRow> page, CountCache.CountResult total) {
+        PostSummaryRow last = page.hasNext() && PageCursor.supports(page.getSort())
+                ? page.getContent().get(page.getNumberOfElements() - 1)
+                : null;
+
+        return PageResponse.<PostSummaryResponse>builder()
                 .content(page.getContent().stream()
-                        .map(this::mapToPostResponse)
+                        .map(this::mapToSummaryResponse)
                         .toList())
                 .page(page.getNumber())
                 .size(page.getSize())
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
+                .totalElements(total != null ? total.total() : null)
+                .totalPages(total != null ? (int) Math.ceil((double) total.total() / page.getSize()) : null)
+                .approximateTotal(total != null ? total.approximate() : null)
                 .hasNext(page.hasNext())
                 .hasPrevious(page.hasPrevious())
+                .nextCursor(last != null ? PageCursor.of(last.createdAt(), last.id()).encode() : null)
                 .build();
     }
 }
@@ -1,26 +1,40 @@
 package com.example.learning.service.impl;
 
+import com.example.learning.cache.CountCache;
 import com.example.learning.dto.request.ChangePasswordRequest;
 import com.example.learning.dto.request.UpdateUserRequest;
 import com.example.learning.dto.response.PageResponse;
 import com.example.learning.dto.response.UserResponse;
 import com.example.learning.dto.response.UserStatisticsResponse;
 import com.example.learning.entity.User;
+import com.example.learning.event.UserAccountChangedEvent;
 import com.example.learning.exception.ResourceNotFoundException;
 import com.example.learning.exception.UnauthorizedException;
-import com.example.learning.repository.CommentRepository;
-import com.example.learning.repository.PostRepository;
 import com.example.learning.repository.UserRepository;
+import com.example.learning.repository.UserStatsRepository;
+import com.example.learning.repository.projection.UserStatisticsRow;
+import com.example.learning.search.UserPrefixIndex;
+import com.example.learning.security.PasswordHashingService;
 import com.example.learning.service.UserService;
+import com.example.learning.util.PageCursor;
+import com.example.learning.util.PaginationUtils;
+import com.example.learning.util.ResourceVersion;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -31,19 +45,39 @@ public class UserServiceImpl implements UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PostRepository postRepository;
+    private UserStatsRepository userStatsRepository;
 
     @Autowired
-    private CommentRepository commentRepository;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private UserPrefixIndex userPrefixIndex;
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<UserResponse> getAllUsers(Pageable pageable, boolean includeTotal) {
+        Slice<User> users = userRepository.findAllActive(pageable);
+        CountCache.CountResult total = includeTotal
+                ? countCache.count("users.active", userRepository::countActive)
+                : null;
+        return mapToPageResponse(users, total);
+    }
 
     @Override
     @Transactional(readOnly = true)
-    public PageResponse<UserResponse> getAllUsers(Pageable pageable) {
-        Page<User> users = userRepository.findAllActive(pageable);
-        return mapToPageResponse(users);
+    public PageResponse<UserResponse> getAllUsers(PageCursor cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<User> users = cursor == null
+                ? userRepository.findActiveLatest(limit)
+                : userRepository.findActiveBefore(cursor.createdAt(), cursor.id(), limit);
+        return PaginationUtils.keysetPage(users, size, cursor != null, this::mapToUserResponse,
+                user -> PageCursor.of(user.getCreatedAt(), user.getId()));
     }
 
     @Override
@@ -54,6 +88,13 @@ public class UserServiceImpl implements UserService {
         return mapToUserResponse(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getUserVersion(Long userId) {
+        return userRepository.findUpdatedAtById(userId)
+                .map(updatedAt -> ResourceVersion.of("user-" + userId, updatedAt, 0));
+    }
+
     @Override
     public UserResponse updateUser(Long userId, UpdateUserRequest request) {
         User user = userRepository.findByIdActive(userId)
@@ -73,6 +114,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(updatedUser.getId(), updatedUser.getEmail()));
         return mapToUserResponse(updatedUser);
     }
 
@@ -81,7 +123,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByIdActive(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getCurrentPassword(), user.getPassword())) {
             throw new UnauthorizedException("Current password is incorrect");
         }
 
@@ -89,15 +131,24 @@ public class UserServiceImpl implements UserService {
             throw new UnauthorizedException("New password and confirm password do not match");
         }
 
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(passwordHashingService.encode(request.getNewPassword()));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId(), user.getEmail()));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PageResponse<UserResponse> searchUsers(String query, Pageable pageable) {
-        Page<User> users = userRepository.searchUsers(query, pageable);
-        return mapToPageResponse(users);
+    public PageResponse<UserResponse> searchUsers(String query, Pageable pageable, boolean includeTotal) {
+        if (userPrefixIndex.isEnabled()) {
+            return searchIndex(query, pageable, includeTotal);
+        }
+
+        Slice<User> users = userRepository.searchUsers(query, pageable);
+        CountCache.CountResult total = includeTotal
+                ? countCache.count("users.search:" + query.toLowerCase(), () -> userRepository.countSearchUsers(query))
+                : null;
+        return mapToPageResponse(users, total);
     }
 
     @Override
@@ -113,27 +164,27 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByIdActive(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
         user.setDeletedAt(LocalDateTime.now());
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId(), user.getEmail()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public UserStatisticsResponse getUserStatistics(Long userId) {
-        User user = userRepository.findByIdActive(userId)
+        UserStatisticsRow stats = userStatsRepository.findStatisticsByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
-        Integer totalPosts = postRepository.countByAuthorId(userId);
-        Integer totalComments = commentRepository.countByAuthorId(userId);
-        Long accountAge = ChronoUnit.DAYS.between(user.getCreatedAt(), LocalDateTime.now());
+        Long accountAge = ChronoUnit.DAYS.between(stats.createdAt(), LocalDateTime.now());
 
         return UserStatisticsResponse.builder()
                 .userId(userId)
-                .totalPosts(totalPosts != null ? totalPosts : 0)
-                .totalComments(totalComments != null ? totalComments : 0)
-                .totalLikes(0)
+                .totalPosts(stats.postCount() != null ? stats.postCount() : 0)
+                .totalComments(stats.commentCount() != null ? stats.commentCount() : 0)
+                .totalLikes(stats.likeCount() != null ? stats.likeCount().intValue() : 0)
                 .accountAge(accountAge.intValue())
-                .lastLoginAt(LocalDateTime.now().toString())
-                .accountStatus(user.getStatus().toString())
+                .lastLoginAt(stats.lastLoginAt() != null ? stats.lastLoginAt().toString() : null)
+                .accountStatus(stats.status().toString())
                 .build();
     }
 
@@ -153,17 +204,53 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
-    private PageResponse<UserResponse> mapToPageResponse(Page<User> page) {
+    /**
+     * Ranks matches with the in-memory prefix index, then loads only the users on the page.
+     */
+    private PageResponse<UserResponse> searchIndex(String query, Pageable pageable, boolean includeTotal) {
+        UserPrefixIndex.SearchHits hits = userPrefixIndex.search(query);
+        int total = hits.ids().size();
+        int from = (int) Math.min(pageable.getOffset(), total);
+        int to = Math.min(from + pageable.getPageSize(), total);
+        List<Long> ids = hits.ids().subList(from, to);
+
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .filter(user -> user.getDeletedAt() == null)
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return PageResponse.<UserResponse>builder()
+                .content(ids.stream()
+                        .map(users::get)
+                        .filter(Objects::nonNull)
+                        .map(this::mapToUserResponse)
+                        .toList())
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .totalElements(includeTotal ? (long) total : null)
+                .totalPages(includeTotal ? (int) Math.ceil((double) total / pageable.getPageSize()) : null)
+                .approximateTotal(includeTotal ? hits.truncated() : null)
+                .hasNext(to < total)
+                .hasPrevious(pageable.hasPrevious())
+                .build();
+    }
+
+    private PageResponse<UserResponse> mapToPageResponse(Slice<User> page, CountCache.CountResult total) {
+        User last = page.hasNext() && PageCursor.supports(page.getSort())
+                ? page.getContent().get(page.getNumberOfElements() - 1)
+                : null;
+
         return PageResponse.<UserResponse>builder()
                 .content(page.getContent().stream()
                         .map(this::mapToUserResponse)
                         .toList())
                 .page(page.getNumber())
                 .size(page.getSize())
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
+                .totalElements(total != null ? total.total() : null)
+                .totalPages(total != null ? (int) Math.ceil((double) total.total() / page.getSize()) : null)
+                .approximateTotal(total != null ? total.approximate() : null)
                 .hasNext(page.hasNext())
                 .hasPrevious(page.hasPrevious())
+                .nextCursor(last != null ? PageCursor.of(last.getCreatedAt(), last.getId()).encode() : null)
                 .build();
     }
 }
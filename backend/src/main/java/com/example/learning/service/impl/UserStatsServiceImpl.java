@@ -0,0 +1,137 @@
+package com.example.learning.service.impl;
+
+import com.example.learning.service.UserStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Recomputes user_stats rows from the posts and comments tables. Writes keep the rows current
+ * incrementally; this covers bulk changes such as restores and repairs any drift.
+ */
+@Service
+@Slf4j
+public class UserStatsServiceImpl implements UserStatsService {
+
+    private static final String POST_COUNT = "(SELECT COUNT(*) FROM posts p WHERE p.user_id = u.id AND p.deleted_at IS NULL)";
+    private static final String COMMENT_COUNT = "(SELECT COUNT(*) FROM comments c WHERE c.user_id = u.id AND c.deleted_at IS NULL)";
+    private static final String LIKE_COUNT = "((SELECT COALESCE(SUM(p.like_count), 0) FROM posts p "
+            + "WHERE p.user_id = u.id AND p.deleted_at IS NULL) + (SELECT COALESCE(SUM(c.like_count), 0) "
+            + "FROM comments c WHERE c.user_id = u.id AND c.deleted_at IS NULL))";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-stats.reconcile.enabled:true}")
+    private boolean reconcileEnabled;
+
+    @Value("${user-stats.reconcile.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate transaction;
+
+    private Timer reconcileTimer;
+
+    private Counter checkedCounter;
+
+    private Counter repairedCounter;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        reconcileTimer = Timer.builder("user-stats.reconcile")
+                .description("Duration of a user statistics reconciliation run")
+                .register(meterRegistry);
+        checkedCounter = Counter.builder("user-stats.reconcile.rows")
+                .tag("outcome", "checked")
+                .register(meterRegistry);
+        repairedCounter = Counter.builder("user-stats.reconcile.rows")
+                .tag("outcome", "repaired")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The INSERT ... SELECT reads the source rows with shared locks, so a write still in flight
+     * for one of these users is waited for rather than missed.
+     */
+    @Override
+    @Transactional
+    public void recompute(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO user_stats (user_id, post_count, comment_count, like_count, updated_at) "
+                + "SELECT u.id, " + POST_COUNT + ", " + COMMENT_COUNT + ", " + LIKE_COUNT + ", NOW(6) "
+                + "FROM users u WHERE u.id IN (:ids) ON DUPLICATE KEY UPDATE "
+                + "post_count = VALUES(post_count), comment_count = VALUES(comment_count), "
+                + "like_count = VALUES(like_count), updated_at = VALUES(updated_at)",
+                new MapSqlParameterSource("ids", userIds));
+    }
+
+    /**
+     * Walks users in id order, comparing each batch with freshly computed counts and
+     * recomputing only the rows that are missing or differ.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${user-stats.reconcile.interval-ms:21600000}",
+               initialDelayString = "${user-stats.reconcile.initial-delay-ms:600000}")
+    public void reconcile() {
+        if (!reconcileEnabled) {
+            return;
+        }
+        reconcileTimer.record(() -> {
+            long checked = 0;
+            long repaired = 0;
+            long afterId = 0;
+            List<Long> ids;
+            do {
+                ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE id > :afterId ORDER BY id LIMIT :limit",
+                        new MapSqlParameterSource("afterId", afterId).addValue("limit", batchSize), Long.class);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                List<Long> drifted = findDrifted(ids);
+                if (!drifted.isEmpty()) {
+                    transaction.executeWithoutResult(status -> recompute(drifted));
+                }
+                checked += ids.size();
+                repaired += drifted.size();
+                afterId = ids.get(ids.size() - 1);
+            } while (ids.size() == batchSize);
+
+            checkedCounter.increment(checked);
+            repairedCounter.increment(repaired);
+            if (repaired > 0) {
+                log.warn("Repaired statistics of {} out of {} users", repaired, checked);
+            } else {
+                log.info("Checked statistics of {} users, none drifted", checked);
+            }
+        });
+    }
+
+    private List<Long> findDrifted(List<Long> ids) {
+        return jdbcTemplate.queryForList("SELECT u.id FROM users u LEFT JOIN user_stats s ON s.user_id = u.id "
+                + "WHERE u.id IN (:ids) AND (s.user_id IS NULL OR s.post_count <> " + POST_COUNT
+                + " OR s.comment_count <> " + COMMENT_COUNT + " OR s.like_count <> " + LIKE_COUNT + ")",
+                new MapSqlParameterSource("ids", ids), Long.class);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.learning.util;
 
 import com.example.learning.security.JwtProvider;
+import com.example.learning.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -12,17 +13,14 @@ public class AuthenticationUtils {
     private JwtProvider jwtProvider;
 
     public Long extractUserIdFromToken(String token) {
-        String email = jwtProvider.getEmailFromToken(token);
-        // In a real application, you would query the database to get the user ID from email
-        // For now, this is a placeholder
-        return 1L;
+        return jwtProvider.verifyToken(token)
+                .map(claims -> claims.get(JwtProvider.CLAIM_USER_ID, Long.class))
+                .orElse(null);
     }
 
     public Long extractUserIdFromAuthentication(Authentication authentication) {
-        if (authentication != null && authentication.getPrincipal() != null) {
-            String email = authentication.getName();
-            // Query database for user ID based on email
-            return 1L; // Placeholder
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
         }
         return null;
     }
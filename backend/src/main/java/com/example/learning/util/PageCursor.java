@@ -0,0 +1,46 @@
+package com.example.learning.util;
+
+import com.example.learning.exception.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor: the (createdAt, id) of the last row a client has seen.
+ * Listings ordered by createdAt DESC, id DESC can seek past it instead of using OFFSET.
+ */
+public record PageCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static PageCursor of(LocalDateTime createdAt, Long id) {
+        return new PageCursor(createdAt, id);
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+            throw new InvalidCursorException("Invalid pagination cursor");
+        }
+    }
+
+    /**
+     * Whether a listing sorted this way can hand out a cursor for its next page.
+     */
+    public static boolean supports(Sort sort) {
+        Sort.Order first = sort.stream().findFirst().orElse(null);
+        return first != null && first.getProperty().equals("createdAt") && first.isDescending();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.learning.util;
+
+import com.example.learning.dto.response.PageResponse;
+import com.example.learning.exception.InvalidRequestException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Request checks and response shaping shared by the paged listings.
+ */
+public final class PaginationUtils {
+
+    private PaginationUtils() {
+    }
+
+    /**
+     * Rejects page numbers and sizes that would otherwise fail deep in the query layer.
+     */
+    public static void checkPage(int page, int size, int maxSize) {
+        if (page < 0) {
+            throw new InvalidRequestException("Page must not be negative");
+        }
+        if (size < 1 || size > maxSize) {
+            throw new InvalidRequestException("Page size must be between 1 and " + maxSize);
+        }
+    }
+
+    /**
+     * Builds a keyset page from rows fetched with a limit of {@code size + 1}; the extra row
+     * only signals that there is a next page, whose cursor is taken from the last row kept.
+     */
+    public static <R, T> PageResponse<T> keysetPage(List<R> rows, int size, boolean hasPrevious,
+                                                    Function<R, T> mapper, Function<R, PageCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<R> pageRows = hasNext ? rows.subList(0, size) : rows;
+        R last = hasNext ? pageRows.get(size - 1) : null;
+
+        return PageResponse.<T>builder()
+                .content(pageRows.stream()
+                        .map(mapper)
+                        .toList())
+                .size(size)
+                .hasNext(hasNext)
+                .hasPrevious(hasPrevious)
+                .nextCursor(last != null ? cursorOf.apply(last).encode() : null)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.learning.util;
+
+/**
+ * Derived values stored alongside a post's content so feeds never have to read the body.
+ */
+public final class PostContentUtils {
+
+    public static final int EXCERPT_LENGTH = 280;
+    private static final int WORDS_PER_MINUTE = 200;
+
+    private PostContentUtils() {
+    }
+
+    public static String excerpt(String content) {
+        String text = content.strip().replaceAll("\\s+", " ");
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', EXCERPT_LENGTH - 1);
+        if (cut <= 0) {
+            cut = EXCERPT_LENGTH - 1;
+        }
+        return text.substring(0, cut) + "...";
+    }
+
+    public static int wordCount(String content) {
+        String text = content.strip();
+        return text.isEmpty() ? 0 : text.split("\\s+").length;
+    }
+
+    public static int readingTimeMinutes(int wordCount) {
+        return Math.max(1, (wordCount + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE);
+    }
+}
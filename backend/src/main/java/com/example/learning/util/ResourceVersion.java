@@ -0,0 +1,88 @@
+package com.example.learning.util;
+
+import com.example.learning.config.MessagePackHttpMessageConverter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validators for conditional GETs: a strong ETag and a Last-Modified time, derived from the
+ * newest updatedAt of the resource (and of the authors it embeds) and a count that changes
+ * when rows are added or removed. The ETag sent carries the response encoding as a suffix:
+ * JSON and CBOR bodies of one version are different bytes, and a strong ETag must tell them
+ * apart even though the responses also carry Vary: Accept.
+ */
+public record ResourceVersion(String etag, Instant lastModified) {
+
+    /** Encodings in converter registration order, each with the suffix its ETags carry. */
+    private static final Map<MediaType, String> ENCODINGS = new LinkedHashMap<>();
+
+    static {
+        ENCODINGS.put(MediaType.APPLICATION_JSON, "json");
+        ENCODINGS.put(MediaType.APPLICATION_CBOR, "cbor");
+        ENCODINGS.put(new MediaType("application", "x-jackson-smile"), "smile");
+        ENCODINGS.put(MessagePackHttpMessageConverter.APPLICATION_MSGPACK, "msgpack");
+        ENCODINGS.put(MessagePackHttpMessageConverter.APPLICATION_X_MSGPACK, "msgpack");
+    }
+
+    public static ResourceVersion of(String resource, LocalDateTime updatedAt, long count) {
+        Instant lastModified = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        return new ResourceVersion("\"" + resource + "-" + lastModified.toEpochMilli() + "-" + count + "\"", lastModified);
+    }
+
+    /**
+     * The later of two update times; a response embedding another row (say, its author) must
+     * change version when either does. A null {@code other} is ignored.
+     */
+    public static LocalDateTime newest(LocalDateTime updatedAt, LocalDateTime other) {
+        return other != null && other.isAfter(updatedAt) ? other : updatedAt;
+    }
+
+    /**
+     * Sets ETag and Last-Modified on the response and, when the client's copy is current,
+     * answers 304. Handlers return null in that case.
+     */
+    public boolean checkNotModified(WebRequest request) {
+        String encoding = encodingFor(request.getHeader(HttpHeaders.ACCEPT));
+        String encodedEtag = etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+        return request.checkNotModified(encodedEtag, lastModified.toEpochMilli());
+    }
+
+    /**
+     * The encoding content negotiation will write for this Accept header: the highest-quality
+     * accepted type that a converter produces, converters tried in registration order, so a
+     * wildcard gets JSON. Headers negotiation would reject fall back to JSON; the 406 follows anyway.
+     */
+    static String encodingFor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "json";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException ex) {
+            return "json";
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (Map.Entry<MediaType, String> encoding : ENCODINGS.entrySet()) {
+                if (type.isCompatibleWith(encoding.getKey())) {
+                    return encoding.getValue();
+                }
+            }
+        }
+        return "json";
+    }
+}
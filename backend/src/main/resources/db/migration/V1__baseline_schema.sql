@@ -0,0 +1,57 @@
+-- Schema as previously created by hibernate.ddl-auto=update, before any column added since.
+-- Existing databases are baselined at this version and skip it, so it must match them exactly;
+-- later columns belong in later migrations.
+
+CREATE TABLE users (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    username   VARCHAR(50)  NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    first_name VARCHAR(100),
+    last_name  VARCHAR(100),
+    phone      VARCHAR(20),
+    avatar     VARCHAR(255),
+    status     ENUM ('ACTIVE', 'INACTIVE', 'SUSPENDED', 'DELETED'),
+    role       VARCHAR(50),
+    created_at DATETIME(6)  NOT NULL,
+    updated_at DATETIME(6),
+    deleted_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_roles (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT      NOT NULL,
+    role       VARCHAR(50) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE posts (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    title      VARCHAR(255) NOT NULL,
+    content    LONGTEXT     NOT NULL,
+    status     ENUM ('DRAFT', 'PUBLISHED', 'ARCHIVED'),
+    user_id    BIGINT       NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    updated_at DATETIME(6),
+    deleted_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_posts_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE comments (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    content    TEXT        NOT NULL,
+    post_id    BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    deleted_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_comments_post FOREIGN KEY (post_id) REFERENCES posts (id),
+    CONSTRAINT fk_comments_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
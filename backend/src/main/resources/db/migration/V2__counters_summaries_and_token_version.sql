@@ -0,0 +1,30 @@
+-- Columns added to the live tables after the baseline schema.
+
+-- Bumped on password change and account deletion; access and refresh tokens carry it.
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
+
+-- Feed summaries and the stored comment count, filled below for the existing rows.
+ALTER TABLE posts
+    ADD COLUMN excerpt VARCHAR(300),
+    ADD COLUMN word_count INT,
+    ADD COLUMN reading_time_minutes INT,
+    ADD COLUMN comment_count INT NOT NULL DEFAULT 0;
+
+UPDATE posts p
+SET p.comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.deleted_at IS NULL);
+
+-- Same rules as PostContentUtils: words are runs of non-whitespace, reading time is 200 words
+-- a minute rounded up, and the excerpt is the content with whitespace collapsed, cut at the last
+-- space within 280 characters. The first pass keeps 281 characters, enough to decide the cut.
+UPDATE posts
+SET word_count = CHAR_LENGTH(REGEXP_REPLACE(REGEXP_REPLACE(content, '\\S+', 'x'), '\\s+', '')),
+    reading_time_minutes = GREATEST(1, CEIL(word_count / 200)),
+    excerpt = LEFT(REGEXP_REPLACE(REGEXP_REPLACE(content, '^\\s+|\\s+$', ''), '\\s+', ' '), 281);
+
+UPDATE posts
+SET excerpt = CASE
+        WHEN CHAR_LENGTH(excerpt) <= 280 THEN excerpt
+        WHEN LOCATE(' ', REVERSE(LEFT(excerpt, 280))) BETWEEN 1 AND 279
+            THEN CONCAT(LEFT(excerpt, 280 - LOCATE(' ', REVERSE(LEFT(excerpt, 280)))), '...')
+        ELSE CONCAT(LEFT(excerpt, 279), '...')
+    END;
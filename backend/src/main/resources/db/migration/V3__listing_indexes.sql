@@ -0,0 +1,17 @@
+-- Composite indexes shaped after the repository predicates. InnoDB appends the primary key
+-- to every secondary index, so the (created_at, id) keyset order is covered as well.
+
+-- PostRepository.findAllPublished, findPublishedLatest/Before, countPublished
+CREATE INDEX idx_posts_feed ON posts (deleted_at, status, created_at);
+
+-- PostRepository.findByAuthorId, countByAuthorId
+CREATE INDEX idx_posts_author ON posts (user_id, deleted_at);
+
+-- CommentRepository.findByPostId, findByPostIdLatest/Before, countByPostId, findVersionByPostId
+CREATE INDEX idx_comments_post ON comments (post_id, deleted_at, created_at);
+
+-- CommentRepository.findByAuthorId, countByAuthorId
+CREATE INDEX idx_comments_author ON comments (user_id, deleted_at);
+
+-- UserRepository.findAllActive, findActiveLatest/Before, countActive
+CREATE INDEX idx_users_active ON users (deleted_at, created_at);
@@ -0,0 +1,69 @@
+-- Archive tables for rows soft-deleted longer than the retention window. Same columns as the live
+-- tables (the archiver copies them by name), but without unique constraints or foreign keys:
+-- archived rows may reference rows archived separately. A column added to a live table must be
+-- added here and to the column lists in ArchiveServiceImpl.
+
+CREATE TABLE users_archive (
+    id            BIGINT       NOT NULL,
+    username      VARCHAR(50)  NOT NULL,
+    email         VARCHAR(100) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    first_name    VARCHAR(100),
+    last_name     VARCHAR(100),
+    phone         VARCHAR(20),
+    avatar        VARCHAR(255),
+    status        VARCHAR(20),
+    role          VARCHAR(50),
+    token_version INT          NOT NULL,
+    created_at    DATETIME(6)  NOT NULL,
+    updated_at    DATETIME(6),
+    deleted_at    DATETIME(6),
+    archived_at   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_users_archive_archived (archived_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_roles_archive (
+    id          BIGINT      NOT NULL,
+    user_id     BIGINT      NOT NULL,
+    role        VARCHAR(50) NOT NULL,
+    created_at  DATETIME(6) NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_user_roles_archive_user (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE posts_archive (
+    id                   BIGINT       NOT NULL,
+    title                VARCHAR(255) NOT NULL,
+    content              LONGTEXT     NOT NULL,
+    status               VARCHAR(20),
+    user_id              BIGINT       NOT NULL,
+    excerpt              VARCHAR(300),
+    word_count           INT,
+    reading_time_minutes INT,
+    comment_count        INT          NOT NULL,
+    created_at           DATETIME(6)  NOT NULL,
+    updated_at           DATETIME(6),
+    deleted_at           DATETIME(6),
+    archived_at          DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_posts_archive_archived (archived_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE comments_archive (
+    id          BIGINT      NOT NULL,
+    content     TEXT        NOT NULL,
+    post_id     BIGINT      NOT NULL,
+    user_id     BIGINT      NOT NULL,
+    created_at  DATETIME(6) NOT NULL,
+    updated_at  DATETIME(6),
+    deleted_at  DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_comments_archive_post (post_id),
+    INDEX idx_comments_archive_archived (archived_at)
+) ENGINE = InnoDB;
+
+-- Let the archiver find expired soft-deleted comments without scanning live ones.
+CREATE INDEX idx_comments_deleted ON comments (deleted_at);
@@ -0,0 +1,10 @@
+-- Persisted post view counts, one row per viewed post. Written only by PostViewCounter's batched
+-- upserts; no foreign key, so a flush racing with post archival cannot fail and restored posts
+-- keep their count.
+
+CREATE TABLE post_views (
+    post_id    BIGINT      NOT NULL,
+    view_count BIGINT      NOT NULL DEFAULT 0,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (post_id)
+) ENGINE = InnoDB;
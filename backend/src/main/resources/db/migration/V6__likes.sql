@@ -0,0 +1,26 @@
+-- Likes on posts and comments. The primary key makes a like idempotent: a repeated or
+-- concurrent INSERT IGNORE changes nothing, so like_count is only adjusted for rows that
+-- really changed. user_id leads the secondary index for "what has this user liked".
+-- No foreign keys, for the same reason as post_views: archived rows keep their likes.
+
+CREATE TABLE post_likes (
+    post_id    BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (post_id, user_id),
+    INDEX idx_post_likes_user (user_id, post_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE comment_likes (
+    comment_id BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (comment_id, user_id),
+    INDEX idx_comment_likes_user (user_id, comment_id)
+) ENGINE = InnoDB;
+
+ALTER TABLE posts ADD COLUMN like_count INT NOT NULL DEFAULT 0;
+ALTER TABLE comments ADD COLUMN like_count INT NOT NULL DEFAULT 0;
+
+ALTER TABLE posts_archive ADD COLUMN like_count INT NOT NULL DEFAULT 0;
+ALTER TABLE comments_archive ADD COLUMN like_count INT NOT NULL DEFAULT 0;
@@ -0,0 +1,22 @@
+-- Per-user counters, maintained in the transaction of every write that changes them and
+-- recomputed in batches by UserStatsServiceImpl.reconcile. like_count is likes received on the
+-- user's live posts and comments. Rows outlive archived users, like post_views.
+
+CREATE TABLE user_stats (
+    user_id       BIGINT      NOT NULL,
+    post_count    INT         NOT NULL DEFAULT 0,
+    comment_count INT         NOT NULL DEFAULT 0,
+    like_count    BIGINT      NOT NULL DEFAULT 0,
+    last_login_at DATETIME(6),
+    updated_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+INSERT INTO user_stats (user_id, post_count, comment_count, like_count, updated_at)
+SELECT u.id,
+       (SELECT COUNT(*) FROM posts p WHERE p.user_id = u.id AND p.deleted_at IS NULL),
+       (SELECT COUNT(*) FROM comments c WHERE c.user_id = u.id AND c.deleted_at IS NULL),
+       (SELECT COALESCE(SUM(p.like_count), 0) FROM posts p WHERE p.user_id = u.id AND p.deleted_at IS NULL)
+           + (SELECT COALESCE(SUM(c.like_count), 0) FROM comments c WHERE c.user_id = u.id AND c.deleted_at IS NULL),
+       NOW(6)
+FROM users u;
@@ -0,0 +1,16 @@
+-- Snowflake node ids, one row per id (0-31). NodeIdLease claims a row at startup, renews it while
+-- the instance runs and releases it on shutdown, so no two running instances share a node id.
+-- previous_expires_at is where the last holder's lease ended; a new holder issues ids only from
+-- after it.
+
+CREATE TABLE id_node_leases (
+    node_id             TINYINT      NOT NULL,
+    owner               VARCHAR(255) NOT NULL DEFAULT '',
+    expires_at          DATETIME(6)  NOT NULL,
+    previous_expires_at DATETIME(6),
+    PRIMARY KEY (node_id)
+) ENGINE = InnoDB;
+
+INSERT INTO id_node_leases (node_id, expires_at)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 31)
+SELECT n, '1970-01-02 00:00:00' FROM seq;
@@ -0,0 +1,26 @@
+package com.example.learning;
+
+import com.example.learning.config.SchedulingConfig;
+import com.example.learning.id.NodeIdLease;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * A throwaway MySQL for tests that depend on the real dialect, migrations and query plans.
+ * The datasource is wired to the container through {@link ServiceConnection}. Slices get the
+ * node id lease the application runs with, since entities take their ids from it.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+@Import({NodeIdLease.class, SchedulingConfig.class})
+public class MySqlTestContainerConfig {
+
+    @Bean
+    @ServiceConnection
+    MySQLContainer<?> mySqlContainer() {
+        return new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+    }
+}
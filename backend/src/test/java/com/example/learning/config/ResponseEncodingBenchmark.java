@@ -0,0 +1,124 @@
+package com.example.learning.config;
+
+import com.example.learning.dto.response.ApiResponse;
+import com.example.learning.dto.response.PageResponse;
+import com.example.learning.dto.response.PostSummaryResponse;
+import com.example.learning.dto.response.UserResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of one page of post summaries, the feed response, in each negotiated
+ * encoding. Mappers are set up as MessageConverterConfig sets them up; JSON keeps the indented
+ * output application.properties turns on, since that is what JSON clients receive. The encoded
+ * size of the page in each encoding is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile", "msgpack"})
+    private String encoding;
+
+    @Param({"20"})
+    private int pageSize;
+
+    private ObjectMapper mapper;
+    private JavaType responseType;
+    private ApiResponse<PageResponse<PostSummaryResponse>> response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .indentOutput(true);
+        mapper = switch (encoding) {
+            case "json" -> builder.build();
+            case "cbor" -> builder.build().copyWith(new CBORFactory()).disable(SerializationFeature.INDENT_OUTPUT);
+            case "smile" -> builder.build().copyWith(new SmileFactory()).disable(SerializationFeature.INDENT_OUTPUT);
+            case "msgpack" -> builder.build().copyWith(new MessagePackFactory()).disable(SerializationFeature.INDENT_OUTPUT);
+            default -> throw new IllegalArgumentException(encoding);
+        };
+        responseType = mapper.getTypeFactory().constructParametricType(ApiResponse.class,
+                mapper.getTypeFactory().constructParametricType(PageResponse.class, PostSummaryResponse.class));
+        response = page(pageSize);
+        encoded = mapper.writeValueAsBytes(response);
+        System.out.printf("%n%s page of %d posts: %d bytes%n", encoding, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return mapper.readValue(encoded, responseType);
+    }
+
+    private static ApiResponse<PageResponse<PostSummaryResponse>> page(int size) {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+        List<PostSummaryResponse> posts = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            posts.add(PostSummaryResponse.builder()
+                    .id(10_000L + i)
+                    .title("Notes on building a search index, part " + i)
+                    .excerpt("An excerpt of the kind the summary column holds: the first sentences of the post, "
+                            + "cut at a word boundary before two hundred and eighty characters and followed by...")
+                    .status("PUBLISHED")
+                    .author(UserResponse.builder()
+                            .id(500L + i % 5)
+                            .username("author" + i % 5)
+                            .avatar("https://cdn.example.com/avatars/author" + i % 5 + ".png")
+                            .build())
+                    .commentCount(i * 3)
+                    .likeCount(i * 17)
+                    .likedByMe(i % 2 == 0)
+                    .wordCount(900 + i * 40)
+                    .readingTimeMinutes(5 + i / 5)
+                    .createdAt(now.minusHours(i))
+                    .updatedAt(now.minusMinutes(i))
+                    .build());
+        }
+        return ApiResponse.<PageResponse<PostSummaryResponse>>builder()
+                .success(true)
+                .message("Posts retrieved successfully")
+                .data(PageResponse.<PostSummaryResponse>builder()
+                        .content(posts)
+                        .page(0)
+                        .size(size)
+                        .totalElements(12_345L)
+                        .totalPages(618)
+                        .hasNext(true)
+                        .hasPrevious(false)
+                        .build())
+                .timestamp(now)
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.learning.repository;
+
+import com.example.learning.MySqlTestContainerConfig;
+import com.example.learning.entity.Comment;
+import com.example.learning.entity.Post;
+import com.example.learning.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A page of posts or comments, authors included, must cost the same number of statements
+ * whatever its size: authors are fetched with the page, not one lazy SELECT per author.
+ * Covers the post listings (feed, by author, search) and the comment listings.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MySqlTestContainerConfig.class)
+class AuthorFetchStatementCountTest {
+
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @Test
+    void publishedPageCostsTheSameStatementsForOneAndTwentyAuthors() {
+        assertThat(statementsForPublishedPage(20)).isEqualTo(statementsForPublishedPage(1));
+    }
+
+    @Test
+    void postsByAuthorCostTheSameStatementsForOneAndTwentyRows() {
+        assertThat(statementsForAuthorPosts(20)).isEqualTo(statementsForAuthorPosts(1));
+    }
+
+    @Test
+    void searchPageCostsTheSameStatementsForOneAndTwentyAuthors() {
+        assertThat(statementsForSearchPage(20)).isEqualTo(statementsForSearchPage(1));
+    }
+
+    @Test
+    void commentPageCostsTheSameStatementsForOneAndTwentyAuthors() {
+        assertThat(statementsForCommentPage(20)).isEqualTo(statementsForCommentPage(1));
+    }
+
+    @Test
+    void commentsByAuthorCostTheSameStatementsForOneAndTwentyRows() {
+        assertThat(statementsForAuthorComments(20)).isEqualTo(statementsForAuthorComments(1));
+    }
+
+    private long statementsForPublishedPage(int size) {
+        for (int i = 0; i < size; i++) {
+            persistPost(persistUser());
+        }
+        startCounting();
+
+        postRepository.findAllPublished(PageRequest.of(0, size))
+                .forEach(post -> assertThat(post.authorUsername()).isNotNull());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsForAuthorPosts(int size) {
+        User author = persistUser();
+        for (int i = 0; i < size; i++) {
+            persistPost(author);
+        }
+        startCounting();
+
+        postRepository.findByAuthorId(author.getId(), PageRequest.of(0, size))
+                .forEach(post -> assertThat(post.authorUsername()).isNotNull());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsForSearchPage(int size) {
+        for (int i = 0; i < size; i++) {
+            persistPost(persistUser());
+        }
+        startCounting();
+
+        postRepository.searchPosts("title", PageRequest.of(0, size))
+                .forEach(post -> assertThat(post.authorUsername()).isNotNull());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsForCommentPage(int size) {
+        Post post = persistPost(persistUser());
+        for (int i = 0; i < size; i++) {
+            persistComment(post, persistUser());
+        }
+        startCounting();
+
+        commentRepository.findByPostId(post.getId(), PageRequest.of(0, size))
+                .forEach(comment -> assertThat(comment.getAuthor().getUsername()).isNotNull());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsForAuthorComments(int size) {
+        User author = persistUser();
+        for (int i = 0; i < size; i++) {
+            persistComment(persistPost(persistUser()), author);
+        }
+        startCounting();
+
+        commentRepository.findByAuthorId(author.getId(), PageRequest.of(0, size))
+                .forEach(comment -> assertThat(comment.getAuthor().getUsername()).isNotNull());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private User persistUser() {
+        int n = USER_SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("author" + n);
+        user.setEmail("author" + n + "@example.com");
+        user.setPassword("not-a-hash");
+        return entityManager.persist(user);
+    }
+
+    private Post persistPost(User author) {
+        Post post = new Post();
+        post.setTitle("Title");
+        post.setContent("Content");
+        post.setStatus(Post.PostStatus.PUBLISHED);
+        post.setAuthor(author);
+        return entityManager.persist(post);
+    }
+
+    private Comment persistComment(Post post, User author) {
+        Comment comment = new Comment();
+        comment.setContent("Comment");
+        comment.setPost(post);
+        comment.setAuthor(author);
+        return entityManager.persist(comment);
+    }
+}
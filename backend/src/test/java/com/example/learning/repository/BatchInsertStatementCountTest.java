@@ -0,0 +1,93 @@
+package com.example.learning.repository;
+
+import com.example.learning.MySqlTestContainerConfig;
+import com.example.learning.entity.Post;
+import com.example.learning.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Saving many new rows must cost one INSERT per JDBC batch, not one per row: ids come from the
+ * Snowflake generator before insert, Hibernate batches the INSERTs and the driver rewrites each
+ * batch into one multi-row statement. Counted with the session's Com_insert, the INSERT
+ * statements MySQL itself executed.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MySqlTestContainerConfig.class)
+class BatchInsertStatementCountTest {
+
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void savingFortyUsersIsOneInsert() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            users.add(newUser());
+        }
+        long before = insertsExecuted();
+
+        userRepository.saveAll(users);
+        entityManager.flush();
+
+        assertThat(insertsExecuted() - before).isEqualTo(1);
+    }
+
+    @Test
+    void savingAHundredPostsIsOneInsertPerBatchOfFifty() {
+        User author = entityManager.persistAndFlush(newUser());
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Post post = new Post();
+            post.setTitle("Title " + i);
+            post.setContent("Content");
+            post.setStatus(Post.PostStatus.PUBLISHED);
+            post.setAuthor(author);
+            posts.add(post);
+        }
+        long before = insertsExecuted();
+
+        postRepository.saveAll(posts);
+        entityManager.flush();
+
+        assertThat(insertsExecuted() - before).isEqualTo(2);
+    }
+
+    /**
+     * Runs on the test transaction's connection, so it counts the session Hibernate writes through.
+     */
+    private long insertsExecuted() {
+        return jdbcTemplate.queryForObject("SHOW SESSION STATUS LIKE 'Com_insert'", (row, i) -> row.getLong(2));
+    }
+
+    private User newUser() {
+        int n = USER_SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("batch" + n);
+        user.setEmail("batch" + n + "@example.com");
+        user.setPassword("not-a-hash");
+        return user;
+    }
+}
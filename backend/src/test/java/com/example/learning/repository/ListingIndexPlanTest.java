@@ -0,0 +1,266 @@
+package com.example.learning.repository;
+
+import com.example.learning.MySqlTestContainerConfig;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls each listing repository method, captures the SQL Hibernate generated for it and runs
+ * EXPLAIN on that SQL against the migrated schema, checking that MySQL picks the index
+ * V3__listing_indexes added for it. Tables are seeded and analyzed first, since an empty table
+ * tells the optimizer nothing. Pages use the controllers' default sort, createdAt then id descending.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MySqlTestContainerConfig.class, ListingIndexPlanTest.CaptureConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListingIndexPlanTest {
+
+    private static final String SEQUENCE = "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000) ";
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+    private static final int PAGE_LIMIT = 11;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CapturedSql capturedSql;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final LocalDateTime cursor = LocalDateTime.now().minusMinutes(500);
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, status, role, created_at, updated_at, deleted_at) "
+                + SEQUENCE + "SELECT n, CONCAT('user', n), CONCAT('user', n, '@example.com'), 'x', 'ACTIVE', 'USER', "
+                + "NOW(6) - INTERVAL n MINUTE, NOW(6), IF(n % 5 = 0, NOW(6), NULL) FROM seq WHERE n <= 200");
+        jdbcTemplate.update("INSERT INTO posts (id, title, content, status, user_id, created_at, updated_at, deleted_at) "
+                + SEQUENCE + "SELECT n, CONCAT('Post ', n), 'Content', IF(n % 4 = 0, 'DRAFT', 'PUBLISHED'), n % 200 + 1, "
+                + "NOW(6) - INTERVAL n MINUTE, NOW(6), IF(n % 10 = 0, NOW(6), NULL) FROM seq");
+        jdbcTemplate.update("INSERT INTO comments (id, content, post_id, user_id, created_at, updated_at, deleted_at) "
+                + SEQUENCE + "SELECT (k.n - 1) * 1000 + s.n, 'Comment', s.n, (s.n + k.n) % 200 + 1, "
+                + "NOW(6) - INTERVAL s.n SECOND, NOW(6), IF(s.n % 10 = 0, NOW(6), NULL) "
+                + "FROM seq s CROSS JOIN (SELECT 1 AS n UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 "
+                + "UNION ALL SELECT 5) k");
+        jdbcTemplate.execute("ANALYZE TABLE users, posts, comments");
+    }
+
+    @Test
+    void publishedPageUsesFeedIndex() {
+        String sql = sqlOf(() -> postRepository.findAllPublished(PageRequest.of(0, 10, NEWEST_FIRST)));
+        assertThat(keyFor("posts", sql)).isEqualTo("idx_posts_feed");
+    }
+
+    @Test
+    void publishedCountUsesFeedIndex() {
+        String sql = sqlOf(postRepository::countPublished);
+        assertThat(keyFor("posts", sql)).isEqualTo("idx_posts_feed");
+    }
+
+    @Test
+    void publishedFeedUsesFeedIndex() {
+        String sql = sqlOf(() -> postRepository.findPublishedLatest(PageRequest.of(0, PAGE_LIMIT)));
+        assertThat(keyFor("posts", sql)).isEqualTo("idx_posts_feed");
+    }
+
+    @Test
+    void publishedFeedAfterCursorUsesFeedIndex() {
+        String sql = sqlOf(() -> postRepository.findPublishedBefore(cursor, 500L, PageRequest.of(0, PAGE_LIMIT)));
+        assertThat(keyFor("posts", sql, cursor, cursor, 500L)).isEqualTo("idx_posts_feed");
+    }
+
+    @Test
+    void postsByAuthorUseAuthorIndex() {
+        String sql = sqlOf(() -> postRepository.findByAuthorId(42L, PageRequest.of(0, 10)));
+        assertThat(keyFor("posts", sql, 42L)).isEqualTo("idx_posts_author");
+    }
+
+    @Test
+    void postCountByAuthorUsesAuthorIndex() {
+        String sql = sqlOf(() -> postRepository.countByAuthorId(42L));
+        assertThat(keyFor("posts", sql, 42L)).isEqualTo("idx_posts_author");
+    }
+
+    @Test
+    void commentPageUsesPostIndex() {
+        String sql = sqlOf(() -> commentRepository.findByPostId(42L, PageRequest.of(0, 20, NEWEST_FIRST)));
+        assertThat(keyFor("comments", sql, 42L)).isEqualTo("idx_comments_post");
+    }
+
+    @Test
+    void commentFeedUsesPostIndex() {
+        String sql = sqlOf(() -> commentRepository.findByPostIdLatest(42L, PageRequest.of(0, PAGE_LIMIT)));
+        assertThat(keyFor("comments", sql, 42L)).isEqualTo("idx_comments_post");
+    }
+
+    @Test
+    void commentFeedAfterCursorUsesPostIndex() {
+        LocalDateTime commentCursor = LocalDateTime.now().minusSeconds(500);
+        String sql = sqlOf(() -> commentRepository.findByPostIdBefore(42L, commentCursor, 500L, PageRequest.of(0, PAGE_LIMIT)));
+        assertThat(keyFor("comments", sql, 42L, commentCursor, commentCursor, 500L)).isEqualTo("idx_comments_post");
+    }
+
+    @Test
+    void commentCountByPostUsesPostIndex() {
+        String sql = sqlOf(() -> commentRepository.countByPostId(42L));
+        assertThat(keyFor("comments", sql, 42L)).isEqualTo("idx_comments_post");
+    }
+
+    @Test
+    void commentListVersionUsesPostIndex() {
+        String sql = sqlOf(() -> commentRepository.findVersionByPostId(42L));
+        assertThat(keyFor("comments", sql, 42L)).isEqualTo("idx_comments_post");
+    }
+
+    @Test
+    void commentsByAuthorUseAuthorIndex() {
+        List<String> statements = statementsOf(() -> commentRepository.findByAuthorId(42L, PageRequest.of(0, 10)));
+        assertThat(statements).as("page and count query").hasSize(2);
+        for (String sql : statements) {
+            assertThat(keyFor("comments", sql, 42L)).as(sql).isEqualTo("idx_comments_author");
+        }
+    }
+
+    @Test
+    void commentCountByAuthorUsesAuthorIndex() {
+        String sql = sqlOf(() -> commentRepository.countByAuthorId(42L));
+        assertThat(keyFor("comments", sql, 42L)).isEqualTo("idx_comments_author");
+    }
+
+    @Test
+    void activeUserPageUsesActiveIndex() {
+        String sql = sqlOf(() -> userRepository.findAllActive(PageRequest.of(0, 10, NEWEST_FIRST)));
+        assertThat(keyFor("users", sql)).isEqualTo("idx_users_active");
+    }
+
+    @Test
+    void activeUserCountUsesActiveIndex() {
+        String sql = sqlOf(userRepository::countActive);
+        assertThat(keyFor("users", sql)).isEqualTo("idx_users_active");
+    }
+
+    @Test
+    void activeUserFeedUsesActiveIndex() {
+        String sql = sqlOf(() -> userRepository.findActiveLatest(PageRequest.of(0, PAGE_LIMIT)));
+        assertThat(keyFor("users", sql)).isEqualTo("idx_users_active");
+    }
+
+    @Test
+    void activeUserFeedAfterCursorUsesActiveIndex() {
+        String sql = sqlOf(() -> userRepository.findActiveBefore(cursor, 100L, PageRequest.of(0, PAGE_LIMIT)));
+        assertThat(keyFor("users", sql, cursor, cursor, 100L)).isEqualTo("idx_users_active");
+    }
+
+    /**
+     * The single statement Hibernate generated for the repository call.
+     */
+    private String sqlOf(Runnable call) {
+        List<String> statements = statementsOf(call);
+        assertThat(statements).hasSize(1);
+        return statements.get(0);
+    }
+
+    private List<String> statementsOf(Runnable call) {
+        capturedSql.clear();
+        call.run();
+        return capturedSql.statements();
+    }
+
+    /**
+     * The index EXPLAIN reports for {@code table} in the generated SQL. {@code args} bind the
+     * query's own parameters in order; placeholders left after them are the LIMIT Hibernate
+     * appended, either the row count alone or offset and row count.
+     */
+    private String keyFor(String table, String sql, Object... args) {
+        Matcher alias = Pattern.compile("\\b(?:from|join) " + table + " (\\w+)", Pattern.CASE_INSENSITIVE).matcher(sql);
+        assertThat(alias.find()).as("%s in %s", table, sql).isTrue();
+
+        List<Object> bound = new ArrayList<>(Arrays.asList(args));
+        long limitPlaceholders = sql.chars().filter(c -> c == '?').count() - args.length;
+        if (limitPlaceholders == 2) {
+            bound.add(0);
+        }
+        if (limitPlaceholders >= 1) {
+            bound.add(PAGE_LIMIT);
+        }
+        assertThat(limitPlaceholders).as("unbound parameters in %s", sql).isBetween(0L, 2L);
+
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, bound.toArray());
+        return plan.stream()
+                .filter(row -> alias.group(1).equals(row.get("table")))
+                .map(row -> (String) row.get("key"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No plan row for " + table + " in " + plan));
+    }
+
+    /**
+     * Records every statement Hibernate prepares, unchanged.
+     */
+    static class CapturedSql implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        List<String> statements() {
+            return List.copyOf(statements);
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        CapturedSql capturedSql() {
+            return new CapturedSql();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementCapture(CapturedSql capturedSql) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, capturedSql);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.learning.search;
+
+import com.example.learning.LearningApplication;
+import com.example.learning.repository.PostRepository;
+import com.example.learning.repository.projection.PostSummaryRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a post search at 1M posts: the LIKE '%q%' query the index replaced against
+ * the Lucene lookup plus the summary load for the ids it returns. Queries cover a term in a
+ * third of the posts, one in every thousandth post, and one that matches nothing, which is
+ * the LIKE query's worst case since it has to scan every row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostSearchBenchmark {
+
+    private static final int POSTS = 1_000_000;
+    private static final int USERS = 1_000;
+    private static final int SEED_CHUNK = 100_000;
+    private static final String WORDS = "'garden', 'river', 'bread', 'winter', 'market', 'engine', 'violin', "
+            + "'harbour', 'pepper', 'canvas', 'meadow', 'lantern', 'copper', 'orchard', 'saddle', 'falcon', "
+            + "'marble', 'thunder', 'velvet', 'compass', 'island', 'forest', 'kettle', 'signal', 'quarry', "
+            + "'ribbon', 'timber', 'summit', 'cobalt', 'pebble'";
+
+    @Param({"garden", "lighthouse", "zeppelin"})
+    private String query;
+
+    private MySQLContainer<?> mysql;
+    private ConfigurableApplicationContext context;
+    private PostRepository postRepository;
+    private PostSearchIndex postSearchIndex;
+    private final Pageable page = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        mysql = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+        mysql.start();
+        context = new SpringApplicationBuilder(LearningApplication.class)
+                .properties(
+                        "spring.datasource.url=" + mysql.getJdbcUrl(),
+                        "spring.datasource.username=" + mysql.getUsername(),
+                        "spring.datasource.password=" + mysql.getPassword(),
+                        "server.port=0",
+                        "search.index.path=" + Files.createTempDirectory("post-index-benchmark"),
+                        "archive.enabled=false",
+                        "user-stats.reconcile.enabled=false",
+                        "logging.level.com.example.learning=INFO")
+                .run();
+        postRepository = context.getBean(PostRepository.class);
+        postSearchIndex = context.getBean(PostSearchIndex.class);
+
+        while (!postSearchIndex.isReady()) {
+            Thread.sleep(100);
+        }
+        seed(context.getBean(JdbcTemplate.class));
+        postSearchIndex.rebuild();
+    }
+
+    /**
+     * Fifty words per post drawn from {@link #WORDS} after its first, "garden", which opens every
+     * third post; "lighthouse" closes every thousandth title and appears nowhere else.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        String thousand = "WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 999) ";
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, status, role, created_at, updated_at) "
+                + thousand + "SELECT n + 1, CONCAT('user', n), CONCAT('user', n, '@example.com'), 'x', 'ACTIVE', "
+                + "'USER', NOW(6), NOW(6) FROM seq WHERE n < " + USERS);
+        String word = "ELT(2 + (id * %d) %% 29, " + WORDS + ")";
+        String title = "CONCAT(" + word.formatted(1) + ", ' ', " + word.formatted(3)
+                + ", IF(id % 1000 = 0, ' lighthouse', ''))";
+        String content = "CONCAT(IF(id % 3 = 0, 'garden ', ''), REPEAT(CONCAT_WS(' ', " + word.formatted(5) + ", "
+                + word.formatted(7) + ", " + word.formatted(11) + ", " + word.formatted(13) + ", "
+                + word.formatted(17) + ", ''), 10))";
+        for (int offset = 0; offset < POSTS; offset += SEED_CHUNK) {
+            jdbcTemplate.update("INSERT INTO posts (id, title, content, status, user_id, created_at, updated_at) "
+                    + thousand + "SELECT id, " + title + ", " + content + ", 'PUBLISHED', 1 + id % " + USERS
+                    + ", NOW(6), NOW(6) FROM (SELECT a.n * 1000 + b.n + 1 AS id FROM seq a CROSS JOIN seq b) seeded "
+                    + "WHERE id BETWEEN ? AND ?", offset + 1, offset + SEED_CHUNK);
+        }
+        jdbcTemplate.execute("ANALYZE TABLE users, posts");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public List<PostSummaryRow> likeQuery() {
+        return postRepository.searchPosts(query, page).getContent();
+    }
+
+    @Benchmark
+    public List<PostSummaryRow> indexQuery() {
+        List<Long> ids = postSearchIndex.search(query, 0, page.getPageSize()).ids();
+        return ids.isEmpty() ? List.of() : postRepository.findSummariesByIds(ids);
+    }
+}
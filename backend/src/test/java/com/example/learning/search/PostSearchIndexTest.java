@@ -0,0 +1,148 @@
+package com.example.learning.search;
+
+import com.example.learning.MySqlTestContainerConfig;
+import com.example.learning.entity.Post;
+import com.example.learning.entity.User;
+import com.example.learning.event.PostChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Index, update, delete and search against posts in a real MySQL. Each test writes its posts
+ * in the test transaction and rebuilds, so the index holds exactly those posts.
+ */
+@DataJpaTest(properties = "search.index.path=${java.io.tmpdir}/post-index-test-${random.uuid}")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MySqlTestContainerConfig.class, PostSearchIndex.class, SimpleMeterRegistry.class})
+class PostSearchIndexTest {
+
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @BeforeEach
+    void waitForStartupRebuild() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!postSearchIndex.isReady()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void matchesStemmedTermsRegardlessOfCase() throws IOException {
+        Post post = persistPost("Running in the rain", "Notes from a wet morning.");
+        rebuild();
+
+        assertThat(postSearchIndex.search("RUNS", 0, 10).ids()).containsExactly(post.getId());
+    }
+
+    @Test
+    void ranksTitleMatchesAboveContentMatches() throws IOException {
+        Post inContent = persistPost("Weekly notes", "A little gardening between the rain showers.");
+        Post inTitle = persistPost("Gardening basics", "Soil, light and water.");
+        rebuild();
+
+        assertThat(postSearchIndex.search("gardening", 0, 10).ids())
+                .containsExactly(inTitle.getId(), inContent.getId());
+    }
+
+    @Test
+    void returnsTheRequestedWindowWithTheFullTotal() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            persistPost("Harbour walk " + i, "Boats and gulls.");
+        }
+        rebuild();
+
+        PostSearchIndex.SearchHits hits = postSearchIndex.search("harbour", 1, 1);
+        assertThat(hits.ids()).hasSize(1);
+        assertThat(hits.totalHits()).isEqualTo(3);
+        assertThat(hits.approximate()).isFalse();
+    }
+
+    @Test
+    void updateReplacesTheDocument() throws IOException {
+        Post post = persistPost("Kayak trip", "Two days on the river.");
+        rebuild();
+
+        post.setTitle("Canoe trip");
+        entityManager.flush();
+        postSearchIndex.onPostChanged(new PostChangedEvent(post.getId(), true));
+
+        assertThat(postSearchIndex.search("kayak", 0, 10).ids()).isEmpty();
+        PostSearchIndex.SearchHits hits = postSearchIndex.search("canoe", 0, 10);
+        assertThat(hits.ids()).containsExactly(post.getId());
+        assertThat(hits.totalHits()).isEqualTo(1);
+    }
+
+    @Test
+    void indexesANewPostFromItsEvent() throws IOException {
+        rebuild();
+        Post post = persistPost("Sourdough starter", "Flour and water, fed daily.");
+
+        postSearchIndex.onPostChanged(new PostChangedEvent(post.getId(), true));
+
+        assertThat(postSearchIndex.search("sourdough", 0, 10).ids()).containsExactly(post.getId());
+    }
+
+    @Test
+    void deleteRemovesTheDocument() throws IOException {
+        Post post = persistPost("Glacier hike", "Crampons required.");
+        rebuild();
+
+        post.setDeletedAt(LocalDateTime.now());
+        entityManager.flush();
+        postSearchIndex.onPostChanged(new PostChangedEvent(post.getId(), true));
+
+        assertThat(postSearchIndex.search("glacier", 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void rebuildReplacesTheIndexWithoutDuplicates() throws IOException {
+        Post first = persistPost("Lighthouse keeper", "A night shift.");
+        Post second = persistPost("Old lighthouse", "Restored lamp.");
+        rebuild();
+        rebuild();
+
+        PostSearchIndex.SearchHits hits = postSearchIndex.search("lighthouse", 0, 10);
+        assertThat(hits.ids()).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(hits.totalHits()).isEqualTo(2);
+    }
+
+    private void rebuild() throws IOException {
+        entityManager.flush();
+        postSearchIndex.rebuild();
+    }
+
+    private Post persistPost(String title, String content) {
+        int n = USER_SEQUENCE.incrementAndGet();
+        User author = new User();
+        author.setUsername("searcher" + n);
+        author.setEmail("searcher" + n + "@example.com");
+        author.setPassword("not-a-hash");
+        entityManager.persist(author);
+
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent(content);
+        post.setStatus(Post.PostStatus.PUBLISHED);
+        post.setAuthor(author);
+        return entityManager.persistAndFlush(post);
+    }
+}
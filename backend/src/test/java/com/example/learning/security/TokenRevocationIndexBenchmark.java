@@ -0,0 +1,100 @@
+package com.example.learning.security;
+
+import com.example.learning.entity.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the revocation check every authenticated request pays: hashing the bearer token,
+ * the Bloom filter probe for a token that is not revoked (the common case) and for one that is,
+ * and the whole cached {@link JwtProvider#verifyToken(String)} path around them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenRevocationIndexBenchmark {
+
+    private static final int PROBES = 4096;
+
+    @Param({"1000", "100000"})
+    private int revokedTokens;
+
+    private TokenRevocationIndex index;
+    private TokenDigest[] liveDigests;
+    private TokenDigest[] revokedDigests;
+    private JwtProvider jwtProvider;
+    private String token;
+    private int probe;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        index = new TokenRevocationIndex(100_000, meterRegistry);
+        SplittableRandom random = new SplittableRandom(42);
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+
+        revokedDigests = new TokenDigest[PROBES];
+        for (int i = 0; i < revokedTokens; i++) {
+            TokenDigest digest = new TokenDigest(random.nextLong(), random.nextLong());
+            index.revoke(digest, expiresAt);
+            revokedDigests[i % PROBES] = digest;
+        }
+        liveDigests = new TokenDigest[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            liveDigests[i] = new TokenDigest(random.nextLong(), random.nextLong());
+        }
+
+        jwtProvider = new JwtProvider();
+        ReflectionTestUtils.setField(jwtProvider, "jwtSecret",
+                "BenchmarkSecretKeyThatIsAtLeast32CharactersLongForHS256");
+        ReflectionTestUtils.setField(jwtProvider, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtProvider, "verifiedTokenCache", new VerifiedTokenCache(10_000, meterRegistry));
+        ReflectionTestUtils.setField(jwtProvider, "tokenRevocationIndex", index);
+        jwtProvider.init();
+        token = jwtProvider.generateToken(User.builder()
+                .id(1L)
+                .email("bench@example.com")
+                .role("USER")
+                .tokenVersion(0)
+                .build());
+        jwtProvider.verifyToken(token);
+    }
+
+    @Benchmark
+    public TokenDigest digestToken() {
+        return TokenDigest.of(token);
+    }
+
+    @Benchmark
+    public boolean isRevokedMiss() {
+        return index.isRevoked(liveDigests[probe++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean isRevokedHit() {
+        return index.isRevoked(revokedDigests[Math.floorMod(probe++, Math.min(revokedTokens, PROBES))]);
+    }
+
+    @Benchmark
+    public Optional<Claims> verifyCachedToken() {
+        return jwtProvider.verifyToken(token);
+    }
+}